@@ -0,0 +1,17 @@
+-- Migration: Low-stock watermarks
+-- Version: V10
+-- Description: Per-product thresholds for low-stock alerts; products without a row use the configured defaults
+
+USE mydatabase;
+
+CREATE TABLE stock_watermarks (
+    product_id BIGINT PRIMARY KEY,
+    low_watermark INT NOT NULL COMMENT 'Alert once available accounts drop to this count',
+    high_watermark INT NOT NULL COMMENT 'Clear the alert once available accounts reach this count',
+    updated TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    CONSTRAINT fk_stock_watermarks_product FOREIGN KEY (product_id) REFERENCES products(id) ON DELETE CASCADE,
+    CONSTRAINT chk_stock_watermarks_range CHECK (low_watermark >= 0 AND high_watermark > low_watermark)
+) COMMENT='Low-stock alert thresholds per product';
+
+-- Verification
+SELECT 'Migration V10 completed successfully' AS status;
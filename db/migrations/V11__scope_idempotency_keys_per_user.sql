@@ -0,0 +1,12 @@
+-- Migration: Per-user idempotency keys
+-- Version: V11
+-- Description: Idempotency keys are unique per user, so one user's key never blocks another user
+
+USE mydatabase;
+
+ALTER TABLE idempotency_keys
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (user_id, idem_key);
+
+-- Verification
+SELECT 'Migration V11 completed successfully' AS status;
@@ -0,0 +1,15 @@
+-- Migration: Keep order summaries of archived orders
+-- Version: V12
+-- Description: Archiving deletes orders from MySQL; their summaries stay so "my orders" still lists them
+
+USE mydatabase;
+
+-- Summaries no longer follow their order (the V6 foreign key has the generated name)
+ALTER TABLE order_summaries DROP FOREIGN KEY order_summaries_ibfk_1;
+
+-- They still go away with their user
+ALTER TABLE order_summaries
+    ADD CONSTRAINT fk_order_summaries_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE;
+
+-- Verification
+SELECT 'Migration V12 completed successfully' AS status;
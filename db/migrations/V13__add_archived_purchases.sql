@@ -0,0 +1,27 @@
+-- Migration: Purchases of archived orders
+-- Version: V13
+-- Description: Archiving deletes sold accounts from MySQL; one row per sold account is kept here so
+--              "my purchases" pages archived accounts by (user_id, sold, account_id) like live ones
+
+USE mydatabase;
+
+CREATE TABLE archived_purchases (
+    account_id BIGINT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    product_name VARCHAR(200) NOT NULL,
+    platform VARCHAR(50) NULL,
+    username VARCHAR(500) NOT NULL, -- Encrypted
+    password VARCHAR(500) NOT NULL, -- Encrypted
+    sold TIMESTAMP NULL,
+    order_id BIGINT NOT NULL,
+    order_code VARCHAR(20) NOT NULL,
+
+    CONSTRAINT fk_archived_purchases_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+) COMMENT='Sold accounts of archived orders, written in the transaction that deletes them';
+
+-- Keyset pagination of a user's purchases, most recently sold first
+CREATE INDEX idx_archived_purchases_user_sold ON archived_purchases(user_id, sold, account_id);
+
+-- Verification
+SELECT 'Migration V13 completed successfully' AS status;
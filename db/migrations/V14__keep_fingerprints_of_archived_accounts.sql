@@ -0,0 +1,19 @@
+-- Migration: Fingerprints of archived accounts
+-- Version: V14
+-- Description: Archiving deletes sold accounts and their fingerprints; tombstones keep a resent
+--              credential from being imported and sold a second time
+
+USE mydatabase;
+
+CREATE TABLE archived_fingerprints (
+    fingerprint BINARY(16) PRIMARY KEY COMMENT 'SHA-256 prefix of product_id and username, as in accounts',
+    archived TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+) COMMENT='Fingerprints of accounts deleted by archiving, checked on every account import';
+
+-- Accounts archived before this migration
+INSERT IGNORE INTO archived_fingerprints (fingerprint)
+SELECT UNHEX(LEFT(SHA2(CONCAT(product_id, CHAR(0), username), 256), 32))
+FROM archived_purchases;
+
+-- Verification
+SELECT 'Migration V14 completed successfully' AS status;
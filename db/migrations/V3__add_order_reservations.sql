@@ -0,0 +1,20 @@
+-- Migration: Reservation support for PENDING orders
+-- Version: V3
+-- Description: Adds the RESERVED account status and an indexed reservation deadline on orders
+
+USE mydatabase;
+
+-- Accounts held by a PENDING order until payment or expiry
+ALTER TABLE accounts
+MODIFY COLUMN status ENUM('AVAILABLE', 'RESERVED', 'SOLD', 'CONTACT') DEFAULT 'CONTACT';
+
+-- Deadline of the reservation held by a PENDING order
+ALTER TABLE orders
+ADD COLUMN reserved_until TIMESTAMP NULL
+COMMENT 'Reservation deadline of a PENDING order';
+
+-- Expiry queue: the scheduler walks this index in deadline order
+CREATE INDEX idx_orders_status_reserved_until ON orders(status, reserved_until);
+
+-- Verification
+SELECT 'Migration V3 completed successfully' AS status;
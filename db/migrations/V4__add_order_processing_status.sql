@@ -0,0 +1,11 @@
+-- Migration: Asynchronous checkout
+-- Version: V4
+-- Description: Adds the PROCESSING status for order intents waiting for fulfillment
+
+USE mydatabase;
+
+ALTER TABLE orders
+MODIFY COLUMN status ENUM('PROCESSING', 'PENDING', 'COMPLETED', 'CANCELLED') DEFAULT 'PENDING';
+
+-- Verification
+SELECT 'Migration V4 completed successfully' AS status;
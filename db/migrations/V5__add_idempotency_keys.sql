@@ -0,0 +1,19 @@
+-- Migration: Idempotent order creation
+-- Version: V5
+-- Description: Stores Idempotency-Key headers of order requests with the response they produced
+
+USE mydatabase;
+
+CREATE TABLE idempotency_keys (
+    idem_key VARCHAR(100) PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    order_id BIGINT NULL COMMENT 'NULL while the first request is still running',
+    response MEDIUMTEXT NULL COMMENT 'JSON of the stored OrderResponseDTO',
+    created TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+) COMMENT='Idempotency keys of order creation requests';
+
+-- Expired keys are purged by creation time
+CREATE INDEX idx_idempotency_keys_created ON idempotency_keys(created);
+
+-- Verification
+SELECT 'Migration V5 completed successfully' AS status;
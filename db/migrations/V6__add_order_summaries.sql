@@ -0,0 +1,36 @@
+-- Migration: Order history read model
+-- Version: V6
+-- Description: Denormalized one-row-per-order summaries for "my orders", paged by (user_id, created, order_id)
+
+USE mydatabase;
+
+CREATE TABLE order_summaries (
+    order_id BIGINT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    order_code VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NULL,
+    total_amount DECIMAL(10,2) NOT NULL,
+    item_count INT NOT NULL DEFAULT 0 COMMENT 'Sum of item quantities',
+    product_names VARCHAR(1000) NULL COMMENT 'Distinct product names, comma separated',
+    created TIMESTAMP NULL,
+    updated TIMESTAMP NULL,
+
+    FOREIGN KEY (order_id) REFERENCES orders(id) ON DELETE CASCADE
+) COMMENT='Read model of orders, refreshed on every order change';
+
+-- Keyset pagination of a user's orders, newest first
+CREATE INDEX idx_order_summaries_user_created ON order_summaries(user_id, created, order_id);
+
+-- Backfill existing orders
+INSERT INTO order_summaries (order_id, user_id, order_code, status, total_amount, item_count, product_names, created, updated)
+SELECT o.id, o.user_id, o.order_code, o.status, o.total_amount,
+       COALESCE(SUM(oi.quantity), 0),
+       SUBSTRING(GROUP_CONCAT(DISTINCT p.name ORDER BY p.name SEPARATOR ', '), 1, 1000),
+       o.created, o.updated
+FROM orders o
+LEFT JOIN order_items oi ON oi.order_id = o.id
+LEFT JOIN products p ON p.id = oi.product_id
+GROUP BY o.id;
+
+-- Verification
+SELECT 'Migration V6 completed successfully' AS status;
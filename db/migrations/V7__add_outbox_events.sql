@@ -0,0 +1,23 @@
+-- Migration: Transactional outbox
+-- Version: V7
+-- Description: Order events written in the same transaction as the order change and relayed to sinks by a dispatcher
+
+USE mydatabase;
+
+CREATE TABLE outbox_events (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    aggregate_id BIGINT NOT NULL COMMENT 'Order ID',
+    event_type VARCHAR(50) NOT NULL,
+    payload MEDIUMTEXT NOT NULL COMMENT 'JSON event body',
+    created TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3),
+    sent TIMESTAMP(3) NULL COMMENT 'NULL until published to every sink',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt TIMESTAMP(3) NULL COMMENT 'Earliest retry after a failed publish',
+    last_error VARCHAR(500) NULL
+) COMMENT='Outbox of order events';
+
+-- The dispatcher scans unsent events that are due
+CREATE INDEX idx_outbox_events_pending ON outbox_events(sent, next_attempt, id);
+
+-- Verification
+SELECT 'Migration V7 completed successfully' AS status;
@@ -0,0 +1,19 @@
+-- Migration: Duplicate-credential detection
+-- Version: V8
+-- Description: Fixed-size fingerprint of (product_id, username) with a unique index, so duplicate
+--              credentials are found with one index lookup instead of comparing VARCHAR(500) columns
+
+USE mydatabase;
+
+-- First 16 bytes of SHA-256(product_id || 0x00 || username), NULL until backfilled
+ALTER TABLE accounts
+    ADD COLUMN fingerprint BINARY(16) NULL COMMENT 'SHA-256 prefix of product_id and username';
+
+-- NULLs do not collide, so existing rows can be backfilled afterwards in chunks
+CREATE UNIQUE INDEX uk_accounts_fingerprint ON accounts(fingerprint);
+
+-- Existing rows: run POST /api/v1/account/fingerprints/backfill once after deploying.
+-- The first account of every duplicate group gets the fingerprint; later duplicates keep NULL.
+
+-- Verification
+SELECT 'Migration V8 completed successfully' AS status;
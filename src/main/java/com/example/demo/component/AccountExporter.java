@@ -0,0 +1,222 @@
+package com.example.demo.component;
+
+import com.example.demo.model.enums.AccountStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams accounts out of MySQL as CSV or NDJSON for admin exports.
+ * Rows are read from a forward-only, read-only result set that the driver streams row by row,
+ * and each row is written before the next is read, so memory does not depend on the export size.
+ * Accounts of archived orders follow from {@code archived_purchases}. Both queries run in one
+ * read-only transaction as plain consistent reads and take no row locks.
+ */
+@Slf4j
+@Component
+public class AccountExporter {
+
+    private static final String CSV_HEADER = "id,product_id,product_name,username,password,status,sold,created,order_code\n";
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Autowired
+    public AccountExporter(DataSource dataSource, PlatformTransactionManager transactionManager) {
+        streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        // MySQL Connector/J streams a forward-only result set only with this fetch size;
+        // any positive value buffers the whole result unless server-side cursors are enabled
+        streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Filter of an export; null fields match everything.
+     *
+     * @param productId only accounts of this product
+     * @param status only accounts with this status
+     * @param soldFrom only accounts sold at or after this time
+     * @param soldTo only accounts sold before this time
+     */
+    public record Filter(Long productId, AccountStatus status, Instant soldFrom, Instant soldTo) {
+    }
+
+    /**
+     * Write all accounts matching a filter in ID order, then the matching sold accounts of
+     * archived orders in ID order.
+     *
+     * @param filter the filter
+     * @param format CSV (with a header row) or NDJSON
+     * @param out the stream to write to; flushed but not closed
+     * @return number of exported accounts
+     * @throws IOException if writing fails, e.g. because the client went away
+     */
+    public long export(Filter filter, AccountImportParser.Format format, OutputStream out) throws IOException {
+        StringBuilder sql = new StringBuilder("""
+                SELECT a.id, a.product_id, p.name, a.username, a.password, a.status, a.sold, a.created, o.order_code
+                FROM accounts a
+                JOIN products p ON p.id = a.product_id
+                LEFT JOIN order_items oi ON oi.id = a.order_item_id
+                LEFT JOIN orders o ON o.id = oi.order_id
+                WHERE 1 = 1""");
+        List<Object> args = new ArrayList<>();
+        if (filter.productId() != null) {
+            sql.append(" AND a.product_id = ?");
+            args.add(filter.productId());
+        }
+        if (filter.status() != null) {
+            sql.append(" AND a.status = ?");
+            args.add(filter.status().name());
+        }
+        appendSoldRange(filter, "a.sold", sql, args);
+        sql.append(" ORDER BY a.id");
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        if (format == AccountImportParser.Format.CSV) {
+            writer.write(CSV_HEADER);
+        }
+        long started = System.nanoTime();
+        long[] rows = {0};
+        RowCallbackHandler handler = resultSet -> {
+            try {
+                if (format == AccountImportParser.Format.CSV) {
+                    writeCsv(resultSet, writer);
+                } else {
+                    writeJson(resultSet, writer);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rows[0]++;
+        };
+        try {
+            // Both queries read the same snapshot, so an archive batch running meanwhile is seen exactly once
+            readOnlyTransaction.executeWithoutResult(status -> {
+                streamingJdbcTemplate.query(sql.toString(), handler, args.toArray());
+                if (filter.status() == null || filter.status() == AccountStatus.SOLD) {
+                    exportArchived(filter, handler);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        log.info("Exported {} accounts as {} in {} ms", rows[0], format, (System.nanoTime() - started) / 1_000_000);
+        return rows[0];
+    }
+
+    /**
+     * Sold accounts of archived orders are no longer in the accounts table; they follow in ID order.
+     * Their creation time is not kept, so {@code created} is empty.
+     */
+    private void exportArchived(Filter filter, RowCallbackHandler handler) {
+        StringBuilder sql = new StringBuilder("""
+                SELECT ap.account_id, ap.product_id, ap.product_name, ap.username, ap.password, 'SOLD', ap.sold, NULL, ap.order_code
+                FROM archived_purchases ap
+                WHERE 1 = 1""");
+        List<Object> args = new ArrayList<>();
+        if (filter.productId() != null) {
+            sql.append(" AND ap.product_id = ?");
+            args.add(filter.productId());
+        }
+        appendSoldRange(filter, "ap.sold", sql, args);
+        sql.append(" ORDER BY ap.account_id");
+        streamingJdbcTemplate.query(sql.toString(), handler, args.toArray());
+    }
+
+    private void appendSoldRange(Filter filter, String column, StringBuilder sql, List<Object> args) {
+        if (filter.soldFrom() != null) {
+            sql.append(" AND ").append(column).append(" >= ?");
+            args.add(Timestamp.from(filter.soldFrom()));
+        }
+        if (filter.soldTo() != null) {
+            sql.append(" AND ").append(column).append(" < ?");
+            args.add(Timestamp.from(filter.soldTo()));
+        }
+    }
+
+    private void writeCsv(ResultSet row, Writer writer) throws SQLException, IOException {
+        writer.write(String.valueOf(row.getLong(1)));
+        writer.write(',');
+        writer.write(String.valueOf(row.getLong(2)));
+        writer.write(',');
+        writeCsvField(row.getString(3), writer);
+        writer.write(',');
+        writeCsvField(row.getString(4), writer);
+        writer.write(',');
+        writeCsvField(row.getString(5), writer);
+        writer.write(',');
+        writeCsvField(row.getString(6), writer);
+        writer.write(',');
+        writeCsvField(instant(row.getTimestamp(7)), writer);
+        writer.write(',');
+        writeCsvField(instant(row.getTimestamp(8)), writer);
+        writer.write(',');
+        writeCsvField(row.getString(9), writer);
+        writer.write('\n');
+    }
+
+    private void writeCsvField(String value, Writer writer) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private void writeJson(ResultSet row, Writer writer) throws SQLException, IOException {
+        Map<String, Object> account = new LinkedHashMap<>();
+        account.put("id", row.getLong(1));
+        account.put("product_id", row.getLong(2));
+        account.put("product_name", row.getString(3));
+        account.put("username", row.getString(4));
+        account.put("password", row.getString(5));
+        account.put("status", row.getString(6));
+        account.put("sold", instant(row.getTimestamp(7)));
+        account.put("created", instant(row.getTimestamp(8)));
+        account.put("order_code", row.getString(9));
+        writer.write(jsonMapper.writeValueAsString(account));
+        writer.write('\n');
+    }
+
+    private static String instant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant().toString() : null;
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.demo.component;
+
+import com.example.demo.repository.mysql.AccountRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Account fingerprints and an in-memory Bloom filter over every stored fingerprint.
+ * A fingerprint is the first 16 bytes of SHA-256 over the product ID, a zero byte and the
+ * username, which is what the V8 migration and {@link AccountRepository#backfillFingerprints}
+ * compute in SQL. Fingerprints of accounts deleted by archiving stay in {@code archived_fingerprints}
+ * and are loaded too. The filter answers "definitely new" for most supplier lines, so only the
+ * few that may be duplicates are looked up in MySQL. Until it has loaded, every fingerprint
+ * counts as a possible duplicate and is looked up.
+ */
+@Slf4j
+@Component
+public class AccountFingerprintIndex {
+
+    public static final int FINGERPRINT_LENGTH = 16;
+
+    private static final int LOAD_CHUNK = 10_000;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    private final int hashes;
+    private final long bits;
+    private volatile AtomicLongArray words;
+    private volatile boolean loaded;
+
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder possibleDuplicates = new LongAdder();
+
+    public AccountFingerprintIndex(
+            @Value("${app.account-fingerprint.expected-accounts:10000000}") long expectedAccounts,
+            @Value("${app.account-fingerprint.false-positive-rate:0.01}") double falsePositiveRate) {
+        double ln2 = Math.log(2);
+        long size = (long) Math.ceil(-expectedAccounts * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.bits = Math.max(64, (size + 63) / 64 * 64);
+        this.hashes = Math.max(1, (int) Math.round((double) bits / expectedAccounts * ln2));
+        this.words = new AtomicLongArray((int) (bits / 64));
+    }
+
+    /**
+     * Compute the fingerprint of an account.
+     *
+     * @param productId the product ID
+     * @param username the account username
+     * @return 16-byte fingerprint
+     */
+    public static byte[] fingerprint(Long productId, String username) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(String.valueOf(productId).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(username.getBytes(StandardCharsets.UTF_8));
+            return Arrays.copyOf(digest.digest(), FINGERPRINT_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        Thread loader = new Thread(() -> {
+            try {
+                reload();
+            } catch (Exception e) {
+                log.warn("Account fingerprint filter not loaded, duplicates are checked in the database: {}",
+                        e.getMessage());
+            }
+        }, "fingerprint-filter-load");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Rebuild the filter from the accounts table and the fingerprints of archived accounts.
+     *
+     * @return number of fingerprints loaded
+     */
+    public synchronized long reload() {
+        loaded = false;
+        AtomicLongArray fresh = new AtomicLongArray(words.length());
+        words = fresh;
+        long count = 0;
+        long lastId = 0;
+        List<Object[]> rows;
+        do {
+            rows = accountRepository.findFingerprintsAfter(lastId, LOAD_CHUNK);
+            for (Object[] row : rows) {
+                lastId = ((Number) row[0]).longValue();
+                add((byte[]) row[1]);
+            }
+            count += rows.size();
+        } while (rows.size() == LOAD_CHUNK);
+        // Accounts deleted by archiving still count as stored
+        byte[] last = new byte[FINGERPRINT_LENGTH];
+        List<byte[]> archived;
+        do {
+            archived = accountRepository.findArchivedFingerprintsAfter(last, LOAD_CHUNK);
+            for (byte[] fingerprint : archived) {
+                add(fingerprint);
+                last = fingerprint;
+            }
+            count += archived.size();
+        } while (archived.size() == LOAD_CHUNK);
+        loaded = true;
+        log.info("Account fingerprint filter loaded with {} fingerprints", count);
+        return count;
+    }
+
+    /**
+     * Record a stored fingerprint.
+     */
+    public void add(byte[] fingerprint) {
+        AtomicLongArray target = words;
+        long[] positions = positions(fingerprint);
+        for (long position : positions) {
+            int word = (int) (position >>> 6);
+            long mask = 1L << position;
+            long current;
+            do {
+                current = target.get(word);
+            } while ((current & mask) == 0 && !target.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    /**
+     * Check whether an account with this fingerprint may already exist.
+     *
+     * @return false only if the fingerprint is certainly not stored
+     */
+    public boolean mightContain(byte[] fingerprint) {
+        checks.increment();
+        if (!loaded) {
+            possibleDuplicates.increment();
+            return true;
+        }
+        AtomicLongArray target = words;
+        for (long position : positions(fingerprint)) {
+            if ((target.get((int) (position >>> 6)) & (1L << position)) == 0) {
+                return false;
+            }
+        }
+        possibleDuplicates.increment();
+        return true;
+    }
+
+    /**
+     * Get filter statistics.
+     *
+     * @return size, hash count, load state and the share of checks sent to the database
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("loaded", loaded);
+        stats.put("bits", bits);
+        stats.put("hashes", hashes);
+        stats.put("checks", checks.sum());
+        stats.put("possible_duplicates", possibleDuplicates.sum());
+        return stats;
+    }
+
+    /**
+     * Bit positions by double hashing; the fingerprint is already uniformly distributed,
+     * so its two halves serve as the two base hashes.
+     */
+    private long[] positions(byte[] fingerprint) {
+        ByteBuffer buffer = ByteBuffer.wrap(fingerprint);
+        long h1 = buffer.getLong(0);
+        long h2 = buffer.getLong(8) | 1;
+        long[] positions = new long[hashes];
+        for (int i = 0; i < hashes; i++) {
+            positions[i] = Math.floorMod(h1 + i * h2, bits);
+        }
+        return positions;
+    }
+}
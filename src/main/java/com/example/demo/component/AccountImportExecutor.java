@@ -0,0 +1,310 @@
+package com.example.demo.component;
+
+import com.example.demo.dto.request.AccountRequestDTO;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.repository.mysql.ProductRepository;
+import com.example.demo.service.AccountService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Runs bulk account imports in the background.
+ * The upload is streamed to a spool file while the request is open, then read line by line,
+ * so memory use does not depend on the file size. Valid lines are inserted in JDBC batches,
+ * one transaction per chunk; rejected lines are written with their line number and reason
+ * to an error report that can be downloaded while or after the import runs. Credentials already
+ * in stock are skipped and reported as duplicates.
+ */
+@Slf4j
+@Component
+public class AccountImportExecutor {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private AccountImportParser parser;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${app.account-import.chunk-size:1000}")
+    private int chunkSize;
+
+    private final Cache<String, Job> jobs = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofHours(6))
+            .<String, Job>removalListener((id, job, cause) -> {
+                if (job != null && cause != RemovalCause.REPLACED) {
+                    job.deleteFiles();
+                }
+            })
+            .build();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "account-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+        jobs.invalidateAll();
+    }
+
+    /**
+     * Spool an upload and queue its import.
+     *
+     * @param source the uploaded content, read to the end by this call
+     * @param format the import format
+     * @return the progress of the new job
+     * @throws UncheckedIOException if the upload cannot be spooled
+     */
+    public Map<String, Object> submit(InputStream source, AccountImportParser.Format format) {
+        Job job = null;
+        try {
+            Path spool = Files.createTempFile("account-import-", ".upload");
+            Path report = Files.createTempFile("account-import-", "-errors.csv");
+            job = new Job(UUID.randomUUID().toString(), format, spool, report);
+            job.totalBytes = Files.copy(source, spool, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            if (job != null) {
+                job.deleteFiles();
+            }
+            throw new UncheckedIOException("Could not store the import upload", e);
+        }
+        Job queued = job;
+        jobs.put(queued.id, queued);
+        executor.execute(() -> run(queued));
+        return queued.progress();
+    }
+
+    /**
+     * Get the progress of an import.
+     *
+     * @param jobId the job ID
+     * @return the job progress
+     * @throws ResourceNotFoundException if the job is unknown or expired
+     */
+    public Map<String, Object> getProgress(String jobId) {
+        return getJob(jobId).progress();
+    }
+
+    /**
+     * Get the error report of an import: one {@code line,error} row per rejected line.
+     *
+     * @param jobId the job ID
+     * @return path of the report file
+     * @throws ResourceNotFoundException if the job is unknown or expired
+     */
+    public Path getErrorReport(String jobId) {
+        return getJob(jobId).report;
+    }
+
+    private Job getJob(String jobId) {
+        Job job = jobs.getIfPresent(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Import job not found with id: " + jobId);
+        }
+        return job;
+    }
+
+    private void run(Job job) {
+        job.state = "RUNNING";
+        try (BufferedReader reader = Files.newBufferedReader(job.spool, StandardCharsets.UTF_8);
+             BufferedWriter report = Files.newBufferedWriter(job.report, StandardCharsets.UTF_8)) {
+            report.write("line,error\n");
+            Set<Long> productIds = loadProductIds();
+            List<AccountRequestDTO> chunk = new ArrayList<>(chunkSize);
+            List<Long> chunkLines = new ArrayList<>(chunkSize);
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                job.bytesRead += line.getBytes(StandardCharsets.UTF_8).length + 1;
+                if (line.isBlank() || (lineNumber == 1 && job.format == AccountImportParser.Format.CSV
+                        && parser.isHeader(line))) {
+                    continue;
+                }
+                job.lines.incrementAndGet();
+                String error;
+                try {
+                    AccountRequestDTO dto = parser.parse(line, job.format);
+                    error = validate(dto, productIds);
+                    if (error == null) {
+                        chunk.add(dto);
+                        chunkLines.add(lineNumber);
+                    }
+                } catch (IllegalArgumentException e) {
+                    error = e.getMessage();
+                }
+                if (error != null) {
+                    reject(job, report, lineNumber, error);
+                }
+                if (chunk.size() == chunkSize) {
+                    flush(job, report, chunk, chunkLines);
+                }
+            }
+            flush(job, report, chunk, chunkLines);
+            job.state = job.failed.get() == 0 ? "COMPLETED" : "COMPLETED_WITH_ERRORS";
+        } catch (Exception e) {
+            job.state = "FAILED";
+            job.error = e.getMessage();
+            log.warn("Account import {} failed: {}", job.id, e.getMessage());
+        } finally {
+            job.finished = Instant.now();
+            try {
+                Files.deleteIfExists(job.spool);
+            } catch (IOException e) {
+                log.warn("Could not delete import spool {}: {}", job.spool, e.getMessage());
+            }
+        }
+        log.info("Account import {} finished: {} imported, {} duplicates, {} rejected",
+                job.id, job.imported.get(), job.duplicates.get(), job.failed.get());
+    }
+
+    private String validate(AccountRequestDTO dto, Set<Long> productIds) {
+        Set<ConstraintViolation<AccountRequestDTO>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            return violations.stream().map(ConstraintViolation::getMessage).sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (!productIds.contains(dto.getProductId())) {
+            return "Product not found with id: " + dto.getProductId();
+        }
+        return null;
+    }
+
+    private void flush(Job job, BufferedWriter report, List<AccountRequestDTO> chunk, List<Long> chunkLines)
+            throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            List<Integer> duplicates = accountService.importAccounts(chunk);
+            job.imported.addAndGet(chunk.size() - duplicates.size());
+            job.duplicates.addAndGet(duplicates.size());
+            for (int position : duplicates) {
+                report(report, chunkLines.get(position),
+                        "Duplicate account for product id: " + chunk.get(position).getProductId());
+            }
+        } catch (Exception e) {
+            log.warn("Import chunk of job {} failed: {}", job.id, e.getMessage());
+            for (Long lineNumber : chunkLines) {
+                reject(job, report, lineNumber, "Chunk insert failed: " + e.getMessage());
+            }
+        }
+        report.flush();
+        chunk.clear();
+        chunkLines.clear();
+    }
+
+    private void reject(Job job, BufferedWriter report, long lineNumber, String error) throws IOException {
+        job.failed.incrementAndGet();
+        report(report, lineNumber, error);
+    }
+
+    private void report(BufferedWriter report, long lineNumber, String error) throws IOException {
+        report.write(lineNumber + ",\"" + String.valueOf(error).replace("\"", "\"\"").replace('\n', ' ') + "\"\n");
+    }
+
+    /**
+     * Product IDs are read once per import, in chunks, instead of once per line.
+     */
+    private Set<Long> loadProductIds() {
+        Set<Long> ids = new HashSet<>();
+        long lastId = 0;
+        List<Long> page;
+        do {
+            page = productRepository.findIdsAfter(lastId, 10_000);
+            ids.addAll(page);
+            if (!page.isEmpty()) {
+                lastId = page.get(page.size() - 1);
+            }
+        } while (page.size() == 10_000);
+        return ids;
+    }
+
+    private static class Job {
+        private final String id;
+        private final AccountImportParser.Format format;
+        private final Path spool;
+        private final Path report;
+        private final Instant started = Instant.now();
+        private final AtomicLong lines = new AtomicLong();
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong duplicates = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private volatile long totalBytes;
+        private volatile long bytesRead;
+        private volatile String state = "QUEUED";
+        private volatile String error;
+        private volatile Instant finished;
+
+        Job(String id, AccountImportParser.Format format, Path spool, Path report) {
+            this.id = id;
+            this.format = format;
+            this.spool = spool;
+            this.report = report;
+        }
+
+        Map<String, Object> progress() {
+            Map<String, Object> progress = new LinkedHashMap<>();
+            progress.put("job_id", id);
+            progress.put("state", state);
+            progress.put("format", format);
+            progress.put("percent", totalBytes == 0 ? 100 : Math.min(100, bytesRead * 100 / totalBytes));
+            progress.put("lines", lines.get());
+            progress.put("imported", imported.get());
+            progress.put("duplicates", duplicates.get());
+            progress.put("failed", failed.get());
+            progress.put("error", error);
+            progress.put("started", started);
+            progress.put("finished", finished);
+            return progress;
+        }
+
+        void deleteFiles() {
+            try {
+                Files.deleteIfExists(spool);
+                Files.deleteIfExists(report);
+            } catch (IOException e) {
+                log.warn("Could not delete files of import {}: {}", id, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.demo.component;
+
+import com.example.demo.dto.request.AccountRequestDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Parses single lines of an account import.
+ * CSV lines hold {@code product_id,username,password[,status]} with RFC 4180 quoting;
+ * NDJSON lines hold one account object as accepted by {@code POST /api/v1/account}.
+ */
+@Component
+public class AccountImportParser {
+
+    public enum Format {
+        CSV, NDJSON;
+
+        /**
+         * Resolve the format from an explicit parameter, then the file name, then the content type.
+         * Defaults to CSV.
+         */
+        public static Format resolve(String format, String filename, String contentType) {
+            if (format != null && !format.isBlank()) {
+                try {
+                    return valueOf(format.trim().toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Import format must be csv or ndjson");
+                }
+            }
+            String name = filename != null ? filename.toLowerCase(Locale.ROOT) : "";
+            String type = contentType != null ? contentType.toLowerCase(Locale.ROOT) : "";
+            if (name.endsWith(".ndjson") || name.endsWith(".jsonl") || type.contains("json")) {
+                return NDJSON;
+            }
+            return CSV;
+        }
+    }
+
+    private final JsonMapper jsonMapper;
+
+    @Autowired
+    public AccountImportParser(JsonMapper jsonMapper) {
+        this.jsonMapper = jsonMapper;
+    }
+
+    /**
+     * Check whether a CSV line is a header row.
+     */
+    public boolean isHeader(String line) {
+        return line.regionMatches(true, 0, "product_id", 0, "product_id".length())
+                || line.regionMatches(true, 0, "\"product_id\"", 0, "\"product_id\"".length());
+    }
+
+    /**
+     * Parse one line.
+     *
+     * @param line the line without its terminator
+     * @param format the import format
+     * @return the account
+     * @throws IllegalArgumentException if the line is malformed
+     */
+    public AccountRequestDTO parse(String line, Format format) {
+        if (format == Format.NDJSON) {
+            try {
+                return jsonMapper.readValue(line, AccountRequestDTO.class);
+            } catch (JacksonException e) {
+                throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+        List<String> fields = splitCsv(line);
+        if (fields.size() < 3 || fields.size() > 4) {
+            throw new IllegalArgumentException("Expected 3 or 4 columns but found " + fields.size());
+        }
+        AccountRequestDTO dto = new AccountRequestDTO();
+        try {
+            dto.setProductId(Long.parseLong(fields.get(0).trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid product_id: " + fields.get(0));
+        }
+        dto.setUsername(fields.get(1));
+        dto.setPassword(fields.get(2));
+        if (fields.size() == 4 && !fields.get(3).isBlank()) {
+            dto.setStatus(fields.get(3).trim());
+        }
+        return dto;
+    }
+
+    private List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(4);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
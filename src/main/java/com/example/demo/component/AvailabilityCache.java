@@ -0,0 +1,128 @@
+package com.example.demo.component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Short-lived cache of AVAILABLE account counts per product for storefront pages.
+ * Entries are dropped after every committed stock change on this node and expire after
+ * {@code app.availability.cache-ttl-ms}, which bounds staleness from changes made on other nodes.
+ * As in {@link ProductCache}, every invalidation is stamped and a load that an invalidation
+ * overtook is dropped again instead of serving the old count until it expires.
+ */
+@Component
+public class AvailabilityCache {
+
+    @Value("${app.availability.cache-ttl-ms:2000}")
+    private long ttlMs;
+
+    @Value("${app.availability.cache-size:100000}")
+    private long cacheSize;
+
+    private Cache<Long, Long> counts;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final Map<Long, Long> invalidatedAt = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        counts = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Get the counts of several products, loading all missing ones with a single call.
+     *
+     * @param productIds the product IDs
+     * @param loader loads the counts of the missing products; products it omits count 0
+     * @return count per requested product
+     */
+    public Map<Long, Long> getAll(Collection<Long> productIds, Function<Set<Long>, Map<Long, Long>> loader) {
+        AtomicLong loadStarted = new AtomicLong(-1);
+        Set<Long> loadedIds = new HashSet<>();
+        Map<Long, Long> found = counts.getAll(productIds, missing -> {
+            loadStarted.set(clock.get());
+            Map<Long, Long> loaded = new LinkedHashMap<>(loader.apply(Set.copyOf(missing)));
+            for (Long productId : missing) {
+                loaded.putIfAbsent(productId, 0L);
+            }
+            loadedIds.addAll(loaded.keySet());
+            return loaded;
+        });
+        long started = loadStarted.get();
+        if (started >= 0) {
+            // Caffeine cached the loaded counts on return; drop the ones invalidated since the load began
+            for (Long productId : loadedIds) {
+                if (invalidatedAt.getOrDefault(productId, 0L) > started) {
+                    counts.invalidate(productId);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Get a cached count without loading it.
+     *
+     * @return the count, or null if not cached
+     */
+    public Long getIfPresent(Long productId) {
+        return counts.getIfPresent(productId);
+    }
+
+    /**
+     * Drop the count of a product once the current transaction commits, or now without one.
+     */
+    public void invalidateAfterCommit(Long productId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(productId);
+                }
+            });
+        } else {
+            invalidate(productId);
+        }
+    }
+
+    private void invalidate(Long productId) {
+        invalidatedAt.put(productId, clock.incrementAndGet());
+        counts.invalidate(productId);
+    }
+
+    /**
+     * Get cache statistics.
+     *
+     * @return size, hits, misses and hit rate
+     */
+    public Map<String, Object> stats() {
+        CacheStats stats = counts.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", counts.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hit_rate", stats.hitRate());
+        return result;
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.demo.component;
+
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.service.OrderCancellationService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs admin bulk cancellations in the background.
+ * The order IDs are split into chunks and every chunk is cancelled in its own transaction,
+ * so a large batch neither holds locks for long nor rolls back completely on one failure.
+ */
+@Slf4j
+@Component
+public class BulkCancellationExecutor {
+
+    @Autowired
+    private OrderCancellationService orderCancellationService;
+
+    @Value("${app.cancellation.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.cancellation.max-orders:100000}")
+    private int maxOrders;
+
+    private final Cache<String, Job> jobs = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofHours(6))
+            .build();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "bulk-cancellation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queue a bulk cancellation.
+     *
+     * @param orderIds the IDs of the orders to cancel
+     * @return the progress of the new job
+     * @throws IllegalArgumentException if no or too many order IDs are given
+     */
+    public Map<String, Object> submit(List<Long> orderIds) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(orderIds));
+        ids.removeIf(id -> id == null);
+        if (ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one order id is required");
+        }
+        if (ids.size() > maxOrders) {
+            throw new IllegalArgumentException("At most " + maxOrders + " orders can be cancelled at once");
+        }
+        Job job = new Job(UUID.randomUUID().toString(), ids.size());
+        jobs.put(job.id, job);
+        executor.execute(() -> run(job, ids));
+        return job.progress();
+    }
+
+    /**
+     * Get the progress of a bulk cancellation.
+     *
+     * @param jobId the job ID
+     * @return the job progress
+     * @throws ResourceNotFoundException if the job is unknown or expired
+     */
+    public Map<String, Object> getProgress(String jobId) {
+        Job job = jobs.getIfPresent(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Cancellation job not found with id: " + jobId);
+        }
+        return job.progress();
+    }
+
+    private void run(Job job, List<Long> ids) {
+        job.state = "RUNNING";
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            try {
+                OrderCancellationService.CancellationResult result = orderCancellationService.cancelOrders(chunk);
+                job.cancelled.addAndGet(result.getCancelledOrders());
+                job.releasedAccounts.addAndGet(result.getReleasedAccounts());
+            } catch (Exception e) {
+                job.failed.addAndGet(chunk.size());
+                log.warn("Cancellation chunk of job {} failed: {}", job.id, e.getMessage());
+            }
+            job.processed.addAndGet(chunk.size());
+        }
+        job.finished = Instant.now();
+        job.state = job.failed.get() == 0 ? "COMPLETED" : "COMPLETED_WITH_ERRORS";
+        log.info("Cancellation job {} finished: {} orders cancelled, {} accounts released",
+                job.id, job.cancelled.get(), job.releasedAccounts.get());
+    }
+
+    private static class Job {
+        private final String id;
+        private final int total;
+        private final Instant started = Instant.now();
+        private final AtomicInteger processed = new AtomicInteger();
+        private final AtomicInteger cancelled = new AtomicInteger();
+        private final AtomicInteger releasedAccounts = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private volatile String state = "QUEUED";
+        private volatile Instant finished;
+
+        Job(String id, int total) {
+            this.id = id;
+            this.total = total;
+        }
+
+        Map<String, Object> progress() {
+            Map<String, Object> progress = new LinkedHashMap<>();
+            progress.put("job_id", id);
+            progress.put("state", state);
+            progress.put("total", total);
+            progress.put("processed", processed.get());
+            progress.put("cancelled", cancelled.get());
+            progress.put("released_accounts", releasedAccounts.get());
+            progress.put("failed", failed.get());
+            progress.put("started", started);
+            progress.put("finished", finished);
+            return progress;
+        }
+    }
+}
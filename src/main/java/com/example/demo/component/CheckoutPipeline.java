@@ -0,0 +1,390 @@
+package com.example.demo.component;
+
+import com.example.demo.dto.request.OrderRequestDTO;
+import com.example.demo.dto.response.OrderResponseDTO;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.exception.TooManyRequestsException;
+import com.example.demo.model.entity.Order;
+import com.example.demo.model.enums.OrderStatus;
+import com.example.demo.repository.mysql.OrderRepository;
+import com.example.demo.service.OrderService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Asynchronous checkout: order intents are persisted on the request thread and fulfilled
+ * by a fixed pool of workers draining a bounded queue in batches.
+ * Request threads and DB connections are only held for the short intent insert; the claim
+ * and delivery run at the pace of the workers. Clients poll the order or subscribe to it.
+ * An intent that fails for a transient reason is queued again with exponential backoff; one that
+ * cannot be fulfilled, or still fails after {@code max-attempts}, is cancelled and its flash-sale
+ * units are given back.
+ */
+@Slf4j
+@Component
+public class CheckoutPipeline {
+
+    /**
+     * What to do when the queue is full.
+     * REJECT answers 429; CALLER_RUNS fulfills the order on the request thread.
+     */
+    public enum RejectionPolicy { REJECT, CALLER_RUNS }
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ModelMapper modelMapper;
+
+    @Autowired
+    private FlashSaleGate flashSaleGate;
+
+    @Value("${app.checkout.async.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.checkout.async.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.checkout.async.workers:4}")
+    private int workers;
+
+    @Value("${app.checkout.async.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.checkout.async.rejection-policy:REJECT}")
+    private RejectionPolicy rejectionPolicy;
+
+    @Value("${app.checkout.async.retry-after-seconds:5}")
+    private long retryAfterSeconds;
+
+    @Value("${app.checkout.async.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.checkout.async.retry-backoff-ms:500}")
+    private long retryBackoffMs;
+
+    private BlockingQueue<Long> queue;
+
+    private ExecutorService executor;
+
+    private ScheduledExecutorService retryScheduler;
+
+    private volatile boolean running;
+
+    private final Map<Long, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    private final Map<Long, Integer> attempts = new ConcurrentHashMap<>();
+
+    private final AtomicInteger busyWorkers = new AtomicInteger();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder callerRuns = new LongAdder();
+    private final LongAdder fulfilled = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "fulfillment-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fulfillment-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            executor.submit(this::drain);
+        }
+        // Intents left by a previous run are picked up again, a page at a time as the workers make room
+        Thread recovery = new Thread(this::recover, "fulfillment-recovery");
+        recovery.setDaemon(true);
+        recovery.start();
+        log.info("Checkout pipeline started with {} workers and queue capacity {}", workers, queueCapacity);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        if (retryScheduler != null) {
+            retryScheduler.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Accept an order for asynchronous fulfillment.
+     *
+     * @param dto order data with items
+     * @return the order intent (PROCESSING), or the fulfilled order when the caller ran it
+     * @throws TooManyRequestsException if the queue is full and the policy is REJECT
+     */
+    public OrderResponseDTO submit(OrderRequestDTO dto) {
+        if (rejectionPolicy == RejectionPolicy.REJECT && queue.remainingCapacity() == 0) {
+            rejected.increment();
+            throw new TooManyRequestsException("Checkout queue is full, please retry later", retryAfterSeconds);
+        }
+        OrderResponseDTO intent = orderService.createOrderIntent(dto);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Joined the caller's transaction (idempotent requests): workers must not see the intent before it commits
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    if (!queue.offer(intent.getId())) {
+                        // The queue filled up since the capacity check; no transaction may run here,
+                        // and every worker is busy draining, so the intent is offered again later
+                        retried.increment();
+                        retryLater(intent.getId(), retryBackoffMs);
+                    }
+                }
+            });
+            accepted.increment();
+            return intent;
+        }
+        if (queue.offer(intent.getId())) {
+            accepted.increment();
+            return intent;
+        }
+        if (rejectionPolicy == RejectionPolicy.CALLER_RUNS) {
+            callerRuns.increment();
+            OrderResponseDTO response = fulfill(intent.getId());
+            return response != null ? response : intent;
+        }
+        rejected.increment();
+        orderService.updateOrderStatus(intent.getId(), OrderStatus.CANCELLED);
+        throw new TooManyRequestsException("Checkout queue is full, please retry later", retryAfterSeconds);
+    }
+
+    /**
+     * Subscribe to the outcome of an order.
+     * The emitter receives one {@code order} event once the order has left PROCESSING.
+     *
+     * @param orderId the order ID
+     * @param timeoutMillis how long to keep the subscription open
+     * @return the emitter
+     */
+    public SseEmitter subscribe(Long orderId, long timeoutMillis) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        subscribers.computeIfAbsent(orderId, id -> new CopyOnWriteArrayList<>()).add(emitter);
+        emitter.onCompletion(() -> unsubscribe(orderId, emitter));
+        emitter.onTimeout(() -> unsubscribe(orderId, emitter));
+
+        Order order = orderRepository.findById(orderId).orElse(null);
+        if (order == null) {
+            unsubscribe(orderId, emitter);
+            throw new ResourceNotFoundException("Order not found with id: " + orderId);
+        }
+        if (order.getStatus() != OrderStatus.PROCESSING) {
+            OrderResponseDTO response = modelMapper.map(order, OrderResponseDTO.class);
+            response.setUsername(order.getUser().getUsername());
+            publish(orderId, response);
+        }
+        return emitter;
+    }
+
+    /**
+     * Get the current pipeline counters.
+     *
+     * @return map of metric name to value
+     */
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("queue_depth", queue != null ? queue.size() : 0);
+        metrics.put("queue_capacity", queueCapacity);
+        metrics.put("workers", workers);
+        metrics.put("busy_workers", busyWorkers.get());
+        metrics.put("rejection_policy", rejectionPolicy.name());
+        metrics.put("accepted", accepted.sum());
+        metrics.put("rejected", rejected.sum());
+        metrics.put("caller_runs", callerRuns.sum());
+        metrics.put("fulfilled", fulfilled.sum());
+        metrics.put("failed", failed.sum());
+        metrics.put("retried", retried.sum());
+        return metrics;
+    }
+
+    private void drain() {
+        List<Long> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Long first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                busyWorkers.incrementAndGet();
+                try {
+                    for (Long orderId : batch) {
+                        fulfill(orderId);
+                    }
+                } finally {
+                    busyWorkers.decrementAndGet();
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void recover() {
+        long lastId = 0;
+        int recovered = 0;
+        try {
+            while (running) {
+                List<Long> page = orderRepository.findIdsByStatusAfter(OrderStatus.PROCESSING, lastId, Limit.of(batchSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+                for (Long orderId : page) {
+                    queue.put(orderId);
+                }
+                recovered += page.size();
+                lastId = page.get(page.size() - 1);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Could not recover pending order intents after id {}: {}", lastId, e.getMessage());
+        }
+        if (recovered > 0) {
+            log.info("Recovered {} pending order intents", recovered);
+        }
+    }
+
+    private OrderResponseDTO fulfill(Long orderId) {
+        OrderResponseDTO response;
+        try {
+            response = orderService.fulfillOrder(orderId);
+            fulfilled.increment();
+        } catch (IllegalArgumentException | ResourceNotFoundException e) {
+            failed.increment();
+            log.info("Order {} could not be fulfilled: {}", orderId, e.getMessage());
+            response = cancel(orderId);
+        } catch (Exception e) {
+            int attempt = attempts.merge(orderId, 1, Integer::sum);
+            if (attempt < maxAttempts) {
+                retried.increment();
+                log.warn("Fulfillment of order {} failed (attempt {}), retrying: {}", orderId, attempt, e.getMessage());
+                retryLater(orderId, retryBackoffMs << Math.min(attempt - 1, 10));
+                return null;
+            }
+            failed.increment();
+            log.warn("Fulfillment of order {} failed {} times, cancelling it: {}", orderId, attempt, e.getMessage());
+            response = cancel(orderId);
+        }
+        attempts.remove(orderId);
+        if (response != null) {
+            publish(orderId, response);
+        }
+        return response;
+    }
+
+    private void retryLater(Long orderId, long delayMs) {
+        retryScheduler.schedule(() -> {
+            if (!queue.offer(orderId)) {
+                retryLater(orderId, delayMs);
+            }
+        }, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Cancel an intent that cannot be fulfilled.
+     * An intent holds no accounts, so cancelling it restocks nothing; the flash-sale units
+     * admitted for it are given back here.
+     *
+     * @return the cancelled order, or null if it is gone or no longer PROCESSING
+     */
+    private OrderResponseDTO cancel(Long orderId) {
+        try {
+            Order order = orderRepository.findById(orderId).orElse(null);
+            if (order == null || order.getStatus() != OrderStatus.PROCESSING) {
+                return null;
+            }
+            List<Object[]> quantities = orderRepository.sumQuantitiesByProduct(orderId);
+            Order cancelled = orderService.updateOrderStatus(orderId, OrderStatus.CANCELLED);
+            for (Object[] row : quantities) {
+                flashSaleGate.restock(((Number) row[0]).longValue(), ((Number) row[1]).intValue());
+            }
+            return OrderResponseDTO.builder()
+                    .id(cancelled.getId())
+                    .orderCode(cancelled.getOrderCode())
+                    .status(cancelled.getStatus().name())
+                    .totalAmount(cancelled.getTotalAmount())
+                    .created(cancelled.getCreated())
+                    .updated(cancelled.getUpdated())
+                    .build();
+        } catch (Exception e) {
+            log.warn("Could not cancel order {}: {}", orderId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void publish(Long orderId, OrderResponseDTO response) {
+        List<SseEmitter> emitters = subscribers.remove(orderId);
+        if (emitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(SseEmitter.event().name("order").data(response));
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private void unsubscribe(Long orderId, SseEmitter emitter) {
+        subscribers.computeIfPresent(orderId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.demo.component;
+
+import com.example.demo.repository.mysql.AccountRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-product buffer of pre-selected AVAILABLE account IDs for checkout.
+ * An enabled product keeps a ring of IDs read without locks by a background loader, which refills
+ * it in one batch whenever it drops to the low watermark. Checkout takes IDs from the ring and
+ * only has to confirm them with a locking read by primary key instead of searching the index.
+ * The loader reads from the highest IDs down while the database claim path takes the lowest,
+ * so the two rarely compete for the same rows.
+ */
+@Slf4j
+@Component
+public class ClaimBuffer {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    private final Map<Long, Ring> rings = new ConcurrentHashMap<>();
+
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "claim-buffer-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Enable the buffer of a product, replacing any previous one, and start filling it.
+     *
+     * @param productId the product ID
+     * @param size number of IDs the ring holds
+     * @param lowWatermark refill once the ring holds this many IDs or fewer
+     * @return the buffer statistics
+     */
+    public Map<String, Object> enable(Long productId, int size, int lowWatermark) {
+        Ring ring = new Ring(size, lowWatermark);
+        rings.put(productId, ring);
+        scheduleRefill(productId, ring);
+        return ring.stats(productId);
+    }
+
+    /**
+     * Disable the buffer of a product; checkout goes back to the database path.
+     *
+     * @param productId the product ID
+     * @return true if the product had a buffer
+     */
+    public boolean disable(Long productId) {
+        return rings.remove(productId) != null;
+    }
+
+    /**
+     * Claim accounts from the buffer of a product. Must run inside the checkout transaction:
+     * the buffered IDs are locked if still AVAILABLE and not locked by another transaction.
+     * IDs that lost that race are dropped.
+     *
+     * @param productId the product ID
+     * @param quantity number of accounts wanted
+     * @return IDs of the locked accounts, fewer than requested (possibly none) when the ring
+     *         ran dry, claims lost a race, or the product has no buffer
+     */
+    public List<Long> claim(Long productId, int quantity) {
+        Ring ring = rings.get(productId);
+        if (ring == null) {
+            return List.of();
+        }
+        List<Long> taken = ring.poll(quantity);
+        if (ring.size() <= ring.lowWatermark) {
+            scheduleRefill(productId, ring);
+        }
+        List<Long> claimed = taken.isEmpty() ? List.of() : accountRepository.lockAvailableAccountIdsIn(productId, taken);
+        ring.stale.add(taken.size() - claimed.size());
+        if (claimed.size() == quantity) {
+            ring.hits.increment();
+        } else {
+            ring.misses.increment();
+        }
+        return claimed;
+    }
+
+    /**
+     * Get statistics of all buffered products.
+     *
+     * @return map of product ID to fill level, hit rate and refill counters
+     */
+    public Map<Long, Map<String, Object>> stats() {
+        Map<Long, Map<String, Object>> stats = new LinkedHashMap<>();
+        rings.forEach((productId, ring) -> stats.put(productId, ring.stats(productId)));
+        return stats;
+    }
+
+    private void scheduleRefill(Long productId, Ring ring) {
+        if (ring.refilling.compareAndSet(false, true)) {
+            loader.execute(() -> refill(productId, ring));
+        }
+    }
+
+    private void refill(Long productId, Ring ring) {
+        try {
+            int wanted = ring.free();
+            if (wanted <= 0 || rings.get(productId) != ring) {
+                return;
+            }
+            List<Long> batch = accountRepository.findAvailableIdsBefore(productId, ring.cursor, wanted);
+            // Start again from the top once the bottom is reached, picking up released and imported accounts
+            ring.cursor = batch.size() < wanted ? Long.MAX_VALUE : batch.get(batch.size() - 1);
+            ring.offer(batch);
+            ring.refills.increment();
+            ring.lastRefill = Instant.now();
+        } catch (RuntimeException e) {
+            log.warn("Claim buffer refill failed for product {}: {}", productId, e.getMessage());
+        } finally {
+            ring.refilling.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loader.shutdownNow();
+    }
+
+    /**
+     * Fixed-size FIFO ring of account IDs without duplicates.
+     */
+    static class Ring {
+        private final long[] ids;
+        private final Set<Long> members = new HashSet<>();
+        private int head;
+        private int count;
+        final int lowWatermark;
+        final AtomicBoolean refilling = new AtomicBoolean();
+        volatile long cursor = Long.MAX_VALUE;
+        volatile Instant lastRefill;
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final LongAdder stale = new LongAdder();
+        final LongAdder refills = new LongAdder();
+
+        Ring(int size, int lowWatermark) {
+            this.ids = new long[size];
+            this.lowWatermark = lowWatermark;
+        }
+
+        synchronized List<Long> poll(int quantity) {
+            int n = Math.min(quantity, count);
+            List<Long> taken = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                long id = ids[head];
+                head = (head + 1) % ids.length;
+                members.remove(id);
+                taken.add(id);
+            }
+            count -= n;
+            return taken;
+        }
+
+        synchronized int offer(List<Long> batch) {
+            int added = 0;
+            for (Long id : batch) {
+                if (count == ids.length) {
+                    break;
+                }
+                if (members.add(id)) {
+                    ids[(head + count) % ids.length] = id;
+                    count++;
+                    added++;
+                }
+            }
+            return added;
+        }
+
+        synchronized int size() {
+            return count;
+        }
+
+        synchronized int free() {
+            return ids.length - count;
+        }
+
+        Map<String, Object> stats(Long productId) {
+            long hitCount = hits.sum();
+            long total = hitCount + misses.sum();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("product_id", productId);
+            stats.put("size", ids.length);
+            stats.put("low_watermark", lowWatermark);
+            stats.put("buffered", size());
+            stats.put("hits", hitCount);
+            stats.put("misses", misses.sum());
+            stats.put("hit_rate", total == 0 ? 0.0 : (double) hitCount / total);
+            stats.put("stale", stale.sum());
+            stats.put("refills", refills.sum());
+            stats.put("last_refill", lastRefill);
+            return stats;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.demo.component;
+
+import com.example.demo.dto.response.CursorPageResponseDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Keyset pagination support.
+ * A cursor is an opaque token holding the sort key and ID of the last row of a page;
+ * repositories seek past it instead of using OFFSET, so every page costs the same.
+ */
+@Component
+public class CursorPagination {
+
+    @Value("${app.pagination.default-size:20}")
+    private int defaultSize;
+
+    @Value("${app.pagination.max-size:100}")
+    private int maxSize;
+
+    /**
+     * Position of the last row of a page.
+     *
+     * @param sortKey the sort column value of the row, as a string
+     * @param id the ID of the row
+     */
+    public record Cursor(String sortKey, long id) {
+    }
+
+    /**
+     * Apply the default and the server-side maximum to a requested page size.
+     *
+     * @param size the requested size, may be null
+     * @return the size to use
+     */
+    public int capSize(Integer size) {
+        if (size == null || size < 1) {
+            return defaultSize;
+        }
+        return Math.min(size, maxSize);
+    }
+
+    /**
+     * Encode the position of a row.
+     *
+     * @param sortKey the sort column value of the row
+     * @param id the ID of the row
+     * @return the opaque cursor
+     */
+    public String encode(String sortKey, long id) {
+        String raw = (sortKey != null ? sortKey : "") + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor.
+     *
+     * @param cursor the opaque cursor, may be null or blank for the first page
+     * @return the position, or null for the first page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public Cursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new Cursor(raw.substring(0, separator), Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Build a page from rows fetched with a limit of {@code size + 1}; the extra row only tells
+     * whether another page exists.
+     *
+     * @param rows the fetched rows
+     * @param size the page size
+     * @param cursorOf builds the cursor of a row
+     * @param total the total count, or null when not requested
+     * @return the page
+     */
+    public <T> CursorPageResponseDTO<T> page(List<T> rows, int size, Function<T, String> cursorOf, Long total) {
+        boolean hasMore = rows.size() > size;
+        List<T> items = hasMore ? new ArrayList<>(rows.subList(0, size)) : rows;
+        return CursorPageResponseDTO.<T>builder()
+                .items(items)
+                .size(items.size())
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? cursorOf.apply(items.get(items.size() - 1)) : null)
+                .total(total)
+                .build();
+    }
+
+    /**
+     * Get a page of rows in ID order, seeking past the ID held by the cursor.
+     *
+     * @param cursor the cursor of the previous page, or null for the first page
+     * @param size the requested page size
+     * @param withTotal whether to count all rows
+     * @param fetchAfter fetches up to the given number of rows with an ID greater than the given one
+     * @param idOf gets the ID of a row
+     * @param count counts all rows
+     * @return the page
+     */
+    public <T> CursorPageResponseDTO<T> scrollById(String cursor, Integer size, boolean withTotal,
+                                                   BiFunction<Long, Integer, List<T>> fetchAfter,
+                                                   Function<T, Long> idOf, LongSupplier count) {
+        int pageSize = capSize(size);
+        Cursor position = decode(cursor);
+        List<T> rows = fetchAfter.apply(position != null ? position.id() : 0L, pageSize + 1);
+        return page(rows, pageSize, row -> encode(String.valueOf(idOf.apply(row)), idOf.apply(row)),
+                withTotal ? count.getAsLong() : null);
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.demo.component;
+
+import com.example.demo.dto.request.OrderItemRequestDTO;
+import com.example.demo.dto.request.OrderRequestDTO;
+import com.example.demo.exception.ConflictException;
+import com.example.demo.model.enums.AccountStatus;
+import com.example.demo.repository.mysql.AccountRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-product admission control for flash sales.
+ * An armed product gets a fair pool of tokens sized to its stock. Checkout must take one token
+ * per unit before any transaction is opened; requests that cannot get their tokens within the
+ * configured wait are rejected with 409, so only as many buyers as there are accounts ever
+ * contend on the account rows.
+ */
+@Component
+public class FlashSaleGate {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private InventoryLedger inventoryLedger;
+
+    private final Map<Long, Sale> sales = new ConcurrentHashMap<>();
+
+    /**
+     * Arm flash-sale mode for a product.
+     *
+     * @param productId the product ID
+     * @param tokens number of units to admit, or null to use the current available stock
+     * @param maxWaitMs how long a request may queue for tokens
+     * @return the sale statistics
+     */
+    public Map<String, Object> arm(Long productId, Integer tokens, long maxWaitMs) {
+        int permits = tokens != null ? tokens : availableStock(productId);
+        Sale sale = new Sale(permits, maxWaitMs);
+        sales.put(productId, sale);
+        return sale.stats(productId);
+    }
+
+    /**
+     * Disarm flash-sale mode for a product.
+     *
+     * @param productId the product ID
+     * @return true if the product was armed
+     */
+    public boolean disarm(Long productId) {
+        return sales.remove(productId) != null;
+    }
+
+    /**
+     * Take the tokens needed by an order for every armed product it contains.
+     *
+     * @param dto the order request
+     * @return the admission, to be released if the order fails
+     * @throws ConflictException if an armed product has no tokens left for the order
+     */
+    public Admission admit(OrderRequestDTO dto) {
+        Admission admission = new Admission();
+        if (sales.isEmpty()) {
+            return admission;
+        }
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (OrderItemRequestDTO item : dto.getOrderItems()) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            Sale sale = sales.get(entry.getKey());
+            if (sale == null) {
+                continue;
+            }
+            if (!sale.acquire(entry.getValue())) {
+                admission.release();
+                throw new ConflictException("Flash sale sold out for product id: " + entry.getKey());
+            }
+            admission.taken.add(new Object[]{sale, entry.getValue()});
+        }
+        return admission;
+    }
+
+    /**
+     * Return units to an armed product, e.g. when a reservation expires.
+     *
+     * @param productId the product ID
+     * @param units number of units
+     */
+    public void restock(Long productId, int units) {
+        Sale sale = sales.get(productId);
+        if (sale != null) {
+            sale.tokens.release(units);
+        }
+    }
+
+    /**
+     * Get statistics of all armed products.
+     *
+     * @return map of product ID to admitted, rejected and queued counters
+     */
+    public Map<Long, Map<String, Object>> stats() {
+        Map<Long, Map<String, Object>> stats = new LinkedHashMap<>();
+        sales.forEach((productId, sale) -> stats.put(productId, sale.stats(productId)));
+        return stats;
+    }
+
+    private int availableStock(Long productId) {
+        long available = inventoryLedger.getAvailable(productId);
+        if (available < 0) {
+            available = accountRepository.countByProductIdAndStatus(productId, AccountStatus.AVAILABLE);
+        }
+        return (int) Math.min(available, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Tokens taken by one order.
+     */
+    public static class Admission {
+        private final List<Object[]> taken = new ArrayList<>();
+
+        /**
+         * Give the tokens back because the order was not created.
+         */
+        public void release() {
+            for (Object[] entry : taken) {
+                ((Sale) entry[0]).giveBack((Integer) entry[1]);
+            }
+            taken.clear();
+        }
+    }
+
+    private static class Sale {
+        private final Semaphore tokens;
+        private final long maxWaitMs;
+        private final Instant armed = Instant.now();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final LongAdder admitted = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+
+        Sale(int permits, long maxWaitMs) {
+            this.tokens = new Semaphore(permits, true);
+            this.maxWaitMs = maxWaitMs;
+        }
+
+        boolean acquire(int units) {
+            boolean acquired;
+            if (tokens.tryAcquire(units)) {
+                acquired = true;
+            } else if (maxWaitMs <= 0 || tokens.availablePermits() == 0) {
+                acquired = false;
+            } else {
+                queued.incrementAndGet();
+                try {
+                    acquired = tokens.tryAcquire(units, maxWaitMs, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    acquired = false;
+                } finally {
+                    queued.decrementAndGet();
+                }
+            }
+            if (acquired) {
+                admitted.add(units);
+            } else {
+                rejected.increment();
+            }
+            return acquired;
+        }
+
+        void giveBack(int units) {
+            tokens.release(units);
+            admitted.add(-units);
+        }
+
+        Map<String, Object> stats(Long productId) {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("product_id", productId);
+            stats.put("armed", armed);
+            stats.put("tokens_left", tokens.availablePermits());
+            stats.put("admitted", admitted.sum());
+            stats.put("rejected", rejected.sum());
+            stats.put("queued", queued.get());
+            return stats;
+        }
+    }
+}
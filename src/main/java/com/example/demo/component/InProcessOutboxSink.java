@@ -0,0 +1,48 @@
+package com.example.demo.component;
+
+import com.example.demo.model.entity.OutboxEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Hands outbox events to listeners registered in the same JVM, e.g. by tests.
+ * A listener that throws fails the batch, which is then retried.
+ */
+@Component
+public class InProcessOutboxSink implements OutboxSink {
+
+    private final List<Consumer<OutboxEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Register a listener.
+     *
+     * @param listener receives every published event
+     */
+    public void addListener(Consumer<OutboxEvent> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Remove a listener.
+     *
+     * @param listener the listener to remove
+     */
+    public void removeListener(Consumer<OutboxEvent> listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public String getName() {
+        return "in-process";
+    }
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        for (Consumer<OutboxEvent> listener : listeners) {
+            events.forEach(listener);
+        }
+    }
+}
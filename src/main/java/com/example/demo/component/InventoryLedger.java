@@ -0,0 +1,226 @@
+package com.example.demo.component;
+
+import com.example.demo.model.enums.AccountStatus;
+import com.example.demo.repository.mysql.AccountRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process count of AVAILABLE accounts per product.
+ * Lets checkout reject out-of-stock orders without querying MySQL. Counts are updated with CAS,
+ * so concurrent buyers of different products never contend and buyers of the same product
+ * only retry on a changed counter. The database stays authoritative: a product the ledger
+ * does not know (or a ledger that failed to load) is always let through to the DB claim.
+ * The ledger only sees changes committed on this node, so before rejecting it recounts the
+ * product in MySQL, at most once per {@code app.inventory.recount-interval-ms} per product.
+ * Every committed change is reported to {@link StockWatermarkMonitor} for low-stock alerts.
+ */
+@Slf4j
+@Component
+public class InventoryLedger {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private StockWatermarkMonitor stockWatermarkMonitor;
+
+    private volatile Map<Long, AtomicLong> available = new ConcurrentHashMap<>();
+
+    private volatile boolean loaded;
+
+    @Value("${app.inventory.recount-interval-ms:1000}")
+    private long recountIntervalMs;
+
+    private final Map<Long, Long> lastRecount = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("Inventory ledger not loaded, checkout falls back to the database: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reload all counts from the accounts table.
+     *
+     * @return number of products loaded
+     */
+    public int rebuild() {
+        Map<Long, AtomicLong> counts = new ConcurrentHashMap<>();
+        for (Object[] row : accountRepository.countAvailableGroupByProduct()) {
+            counts.put(((Number) row[0]).longValue(), new AtomicLong(((Number) row[1]).longValue()));
+        }
+        available = counts;
+        loaded = true;
+        log.info("Inventory ledger loaded for {} products", counts.size());
+        stockWatermarkMonitor.evaluateAll(snapshot());
+        return counts.size();
+    }
+
+    /**
+     * Take {@code quantity} units of a product out of the ledger.
+     * When called inside a transaction the units are given back if it rolls back.
+     *
+     * @param productId the product ID
+     * @param quantity the number of units
+     * @return false only if the ledger knows the product and it has fewer units left
+     */
+    public boolean tryReserve(Long productId, int quantity) {
+        if (!loaded) {
+            return true;
+        }
+        AtomicLong counter = available.get(productId);
+        if (counter == null) {
+            return true;
+        }
+        boolean recounted = false;
+        long current;
+        do {
+            current = counter.get();
+            if (current < quantity) {
+                // Stock added by another node or by hand is only visible in MySQL
+                if (recounted || !recount(productId, counter, current)) {
+                    return false;
+                }
+                recounted = true;
+                current = -1;
+            }
+        } while (current < 0 || !counter.compareAndSet(current, current - quantity));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        counter.addAndGet(quantity);
+                    } else {
+                        stockWatermarkMonitor.evaluate(productId, counter.get());
+                    }
+                }
+            });
+        } else {
+            stockWatermarkMonitor.evaluate(productId, counter.get());
+        }
+        return true;
+    }
+
+    /**
+     * Replace a counter that looked too low with the database count, unless the product was
+     * recounted recently or the counter changed in the meantime.
+     *
+     * @return true if the counter now holds the database count
+     */
+    private boolean recount(Long productId, AtomicLong counter, long seen) {
+        long now = System.currentTimeMillis();
+        Long last = lastRecount.get(productId);
+        if (last != null && now - last < recountIntervalMs) {
+            return false;
+        }
+        lastRecount.put(productId, now);
+        long actual = accountRepository.countByProductIdAndStatus(productId, AccountStatus.AVAILABLE);
+        if (actual == seen || !counter.compareAndSet(seen, actual)) {
+            return false;
+        }
+        log.info("Inventory ledger recounted product {}: {} -> {}", productId, seen, actual);
+        stockWatermarkMonitor.evaluate(productId, actual);
+        return true;
+    }
+
+    /**
+     * Set the count of a product to the database count if it still holds the value seen
+     * when the drift was detected.
+     *
+     * @param productId the product ID
+     * @param expected the ledger count the drift was computed from
+     * @param actual the database count
+     * @return true if the counter was corrected
+     */
+    public boolean correct(Long productId, long expected, long actual) {
+        if (!loaded) {
+            return false;
+        }
+        AtomicLong counter = available.computeIfAbsent(productId, id -> new AtomicLong());
+        if (!counter.compareAndSet(expected, actual)) {
+            return false;
+        }
+        stockWatermarkMonitor.evaluate(productId, actual);
+        return true;
+    }
+
+    /**
+     * Apply a change in available units once the current transaction commits,
+     * or immediately when no transaction is active.
+     *
+     * @param productId the product ID
+     * @param delta units added (positive) or removed (negative)
+     */
+    public void adjustAfterCommit(Long productId, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    adjust(productId, delta);
+                }
+            });
+        } else {
+            adjust(productId, delta);
+        }
+    }
+
+    /**
+     * Apply a change in available units right away.
+     *
+     * @return the new count, or -1 if the ledger is not loaded
+     */
+    public long adjust(Long productId, long delta) {
+        if (!loaded) {
+            return -1;
+        }
+        long count = available.computeIfAbsent(productId, id -> new AtomicLong()).addAndGet(delta);
+        stockWatermarkMonitor.evaluate(productId, count);
+        return count;
+    }
+
+    /**
+     * Get the available units of a product.
+     *
+     * @return the count, or -1 if unknown
+     */
+    public long getAvailable(Long productId) {
+        AtomicLong counter = available.get(productId);
+        return loaded && counter != null ? counter.get() : -1;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Copy the current counts.
+     *
+     * @return map of product ID to available units
+     */
+    public Map<Long, Long> snapshot() {
+        Map<Long, Long> copy = new HashMap<>();
+        available.forEach((productId, counter) -> copy.put(productId, counter.get()));
+        return copy;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.demo.component;
+
+import com.example.demo.model.entity.OutboxEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Appends outbox events as NDJSON lines to a local file, one batch per write.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.log-file.enabled", havingValue = "true")
+public class LogFileOutboxSink implements OutboxSink {
+
+    @Value("${app.outbox.log-file.path:logs/outbox-events.ndjson}")
+    private String path;
+
+    @Override
+    public String getName() {
+        return "log-file";
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (OutboxEvent event : events) {
+            lines.append("{\"id\":").append(event.getId())
+                    .append(",\"type\":\"").append(event.getEventType())
+                    .append("\",\"created\":\"").append(event.getCreated())
+                    .append("\",\"payload\":").append(event.getPayload())
+                    .append("}\n");
+        }
+        Path file = Paths.get(path);
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (FileOutputStream out = new FileOutputStream(file.toFile(), true)) {
+            out.write(lines.toString().getBytes(StandardCharsets.UTF_8));
+            out.getFD().sync();
+        }
+    }
+}
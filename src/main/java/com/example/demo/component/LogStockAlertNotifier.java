@@ -0,0 +1,23 @@
+package com.example.demo.component;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes low-stock alerts to the application log.
+ */
+@Slf4j
+@Component
+public class LogStockAlertNotifier implements StockAlertNotifier {
+
+    @Override
+    public void notify(StockWatermarkMonitor.Alert alert) {
+        if (alert.type() == StockWatermarkMonitor.AlertType.LOW_STOCK) {
+            log.warn("Low stock: product {} has {} available accounts (low watermark {})",
+                    alert.productId(), alert.available(), alert.lowWatermark());
+        } else {
+            log.info("Stock recovered: product {} has {} available accounts (high watermark {})",
+                    alert.productId(), alert.available(), alert.highWatermark());
+        }
+    }
+}
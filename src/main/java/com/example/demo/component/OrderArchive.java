@@ -0,0 +1,236 @@
+package com.example.demo.component;
+
+import com.example.demo.dto.response.OrderResponseDTO;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Append-only cold storage for archived orders.
+ * Orders are stored as NDJSON in gzip files partitioned by creation date
+ * ({@code orders/yyyy/yyyy-MM-dd.ndjson.gz}). Every append writes one gzip member per partition,
+ * so a record is read back by seeking to its member without decompressing the whole file.
+ * {@code index.tsv} maps order ID, order code and user ID to the file and member offset
+ * and is kept in memory.
+ */
+@Slf4j
+@Component
+public class OrderArchive {
+
+    private static final String INDEX_FILE = "index.tsv";
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Value("${app.archive.dir:archive}")
+    private String archiveDir;
+
+    private final Map<Long, IndexEntry> byOrderId = new ConcurrentHashMap<>();
+    private final Map<Long, List<Long>> orderIdsByUser = new ConcurrentHashMap<>();
+
+    private record IndexEntry(long orderId, String orderCode, long userId, String file, long offset) {
+    }
+
+    @PostConstruct
+    public void loadIndex() {
+        Path index = root().resolve(INDEX_FILE);
+        if (!Files.exists(index)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(index, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t");
+                if (fields.length != 5) {
+                    // Torn line from an interrupted append; the order is still in MySQL
+                    continue;
+                }
+                try {
+                    register(new IndexEntry(Long.parseLong(fields[0]), fields[1], Long.parseLong(fields[2]),
+                            fields[3], Long.parseLong(fields[4])));
+                } catch (NumberFormatException e) {
+                    log.warn("Skipping malformed archive index line: {}", line);
+                }
+            }
+            log.info("Loaded archive index with {} orders", byOrderId.size());
+        } catch (IOException e) {
+            log.warn("Could not load archive index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Check whether an order has already been archived.
+     *
+     * @param orderId the order ID
+     * @return true if the order is in the archive index
+     */
+    public boolean contains(Long orderId) {
+        return byOrderId.containsKey(orderId);
+    }
+
+    /**
+     * Append orders to the archive. Data files are synced before the index entries pointing
+     * at them are written, so a crash never leaves an index entry without its record.
+     *
+     * @param orders the full orders to archive
+     */
+    public synchronized void append(Collection<OrderResponseDTO> orders) {
+        Map<String, List<OrderResponseDTO>> partitions = new LinkedHashMap<>();
+        for (OrderResponseDTO order : orders) {
+            partitions.computeIfAbsent(partitionOf(order), k -> new ArrayList<>()).add(order);
+        }
+        try {
+            List<IndexEntry> entries = new ArrayList<>();
+            for (Map.Entry<String, List<OrderResponseDTO>> partition : partitions.entrySet()) {
+                Path file = root().resolve(partition.getKey());
+                Files.createDirectories(file.getParent());
+                try (FileOutputStream out = new FileOutputStream(file.toFile(), true)) {
+                    long offset = out.getChannel().size();
+                    GZIPOutputStream gzip = new GZIPOutputStream(out);
+                    Writer writer = new OutputStreamWriter(gzip, StandardCharsets.UTF_8);
+                    for (OrderResponseDTO order : partition.getValue()) {
+                        writer.write(jsonMapper.writeValueAsString(order));
+                        writer.write('\n');
+                        entries.add(new IndexEntry(order.getId(), order.getOrderCode(), order.getUserId(),
+                                partition.getKey(), offset));
+                    }
+                    writer.flush();
+                    gzip.finish();
+                    out.getFD().sync();
+                }
+            }
+            appendIndex(entries);
+            entries.forEach(this::register);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write order archive", e);
+        }
+    }
+
+    /**
+     * Read an archived order.
+     *
+     * @param orderId the order ID
+     * @return the order, or empty if it is not archived
+     */
+    public Optional<OrderResponseDTO> find(Long orderId) {
+        IndexEntry entry = byOrderId.get(orderId);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(root().resolve(entry.file()), StandardOpenOption.READ)) {
+            channel.position(entry.offset());
+            InputStream in = new GZIPInputStream(Channels.newInputStream(channel));
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                OrderResponseDTO order = jsonMapper.readValue(line, OrderResponseDTO.class);
+                if (orderId.equals(order.getId())) {
+                    return Optional.of(order);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not read archived order {}: {}", orderId, e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Read all archived orders of a user.
+     *
+     * @param userId the user ID
+     * @return the orders
+     */
+    public List<OrderResponseDTO> findByUserId(Long userId) {
+        List<OrderResponseDTO> orders = new ArrayList<>();
+        for (Long orderId : orderIdsByUser.getOrDefault(userId, List.of())) {
+            find(orderId).ifPresent(orders::add);
+        }
+        return orders;
+    }
+
+    /**
+     * Get the number of archived orders.
+     *
+     * @return the number of orders in the index
+     */
+    public int size() {
+        return byOrderId.size();
+    }
+
+    private void appendIndex(List<IndexEntry> entries) throws IOException {
+        Path index = root().resolve(INDEX_FILE);
+        Files.createDirectories(index.getParent());
+        StringBuilder lines = new StringBuilder();
+        if (!endsWithNewline(index)) {
+            lines.append('\n');
+        }
+        for (IndexEntry entry : entries) {
+            lines.append(entry.orderId()).append('\t').append(entry.orderCode()).append('\t')
+                    .append(entry.userId()).append('\t').append(entry.file()).append('\t')
+                    .append(entry.offset()).append('\n');
+        }
+        try (FileOutputStream out = new FileOutputStream(index.toFile(), true)) {
+            out.write(lines.toString().getBytes(StandardCharsets.UTF_8));
+            out.getFD().sync();
+        }
+    }
+
+    private boolean endsWithNewline(Path file) throws IOException {
+        if (!Files.exists(file) || Files.size(file) == 0) {
+            return true;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "r")) {
+            raf.seek(raf.length() - 1);
+            return raf.read() == '\n';
+        }
+    }
+
+    private void register(IndexEntry entry) {
+        if (byOrderId.putIfAbsent(entry.orderId(), entry) == null) {
+            orderIdsByUser.computeIfAbsent(entry.userId(), k -> new CopyOnWriteArrayList<>()).add(entry.orderId());
+        }
+    }
+
+    private String partitionOf(OrderResponseDTO order) {
+        LocalDate date = order.getCreated() != null
+                ? LocalDate.ofInstant(order.getCreated(), ZoneOffset.UTC)
+                : LocalDate.now(ZoneOffset.UTC);
+        return "orders/" + date.getYear() + "/" + date + ".ndjson.gz";
+    }
+
+    private Path root() {
+        return Paths.get(archiveDir);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.demo.component;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-style order code generator.
+ * A code packs 41 bits of milliseconds since 2025-01-01, a 10-bit node id and a 12-bit sequence
+ * into one positive long, written as 13 upper-case base-36 characters. Codes are unique across
+ * up to 1024 nodes, sort by creation time, and fit the VARCHAR(20) order_code column.
+ * Generation is a single CAS on one AtomicLong; when a node issues more than 4096 codes in a
+ * millisecond, or the clock steps back, the sequence carries into the next millisecond instead
+ * of waiting, so callers never block.
+ * The node id is {@code app.order-code.node-id}; when it is not set it is derived from the host
+ * name, which is only a hash, so clusters should set a distinct id on every node.
+ */
+@Slf4j
+@Component
+public class OrderCodeGenerator {
+
+    public static final int CODE_LENGTH = 13;
+
+    private static final long EPOCH = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final char[] DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+
+    private final long nodeId;
+
+    /**
+     * Last issued (timestamp << SEQUENCE_BITS | sequence).
+     */
+    private final AtomicLong state = new AtomicLong();
+
+    public OrderCodeGenerator(@Value("${app.order-code.node-id:-1}") long nodeId) {
+        if (nodeId < 0) {
+            nodeId = deriveNodeId();
+            log.warn("app.order-code.node-id is not set, using {} derived from the host name", nodeId);
+        }
+        if (nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Order code node id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+    }
+
+    /**
+     * Generate the next order code.
+     *
+     * @return a 13-character code
+     */
+    public String nextCode() {
+        long id = nextId();
+        char[] code = new char[CODE_LENGTH];
+        for (int i = CODE_LENGTH - 1; i >= 0; i--) {
+            code[i] = DIGITS[(int) (id % 36)];
+            id /= 36;
+        }
+        return new String(code);
+    }
+
+    /**
+     * Generate the next numeric id.
+     *
+     * @return a positive, strictly increasing id for this node
+     */
+    public long nextId() {
+        while (true) {
+            long last = state.get();
+            long now = System.currentTimeMillis() - EPOCH;
+            long next = now > (last >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : last + 1;
+            if (state.compareAndSet(last, next)) {
+                return ((next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS))
+                        | (nodeId << SEQUENCE_BITS)
+                        | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    private static long deriveNodeId() {
+        try {
+            return (InetAddress.getLocalHost().getHostName().hashCode() & 0x7fffffff) % (MAX_NODE_ID + 1);
+        } catch (Exception e) {
+            // A fixed fallback would give every such node the same id
+            throw new IllegalStateException("Cannot derive the order code node id from the host name, set app.order-code.node-id", e);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.demo.component;
+
+import com.example.demo.exception.TooManyRequestsException;
+import com.example.demo.model.entity.User;
+import com.example.demo.model.enums.UserRole;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-user token buckets for order writes.
+ * Each bucket is a single AtomicLong holding its theoretical arrival time (GCRA), which behaves
+ * exactly like a token bucket of {@code capacity} tokens refilled at a fixed rate, and takes one
+ * CAS per request. Buckets live in a size-bounded cache and expire once they would have refilled
+ * completely, so evicting an idle user loses no state and memory stays bounded by the number of
+ * users active within one refill window (capped at {@code app.rate-limit.max-users}).
+ */
+@Component
+public class OrderRateLimiter {
+
+    private final boolean enabled;
+    private final Rate customerRate;
+    private final Rate adminRate;
+    private final Cache<Long, Bucket> buckets;
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public OrderRateLimiter(@Value("${app.rate-limit.enabled:true}") boolean enabled,
+                            @Value("${app.rate-limit.max-users:500000}") long maxUsers,
+                            @Value("${app.rate-limit.customer.capacity:10}") int customerCapacity,
+                            @Value("${app.rate-limit.customer.refill-per-minute:30}") int customerPerMinute,
+                            @Value("${app.rate-limit.admin.capacity:100}") int adminCapacity,
+                            @Value("${app.rate-limit.admin.refill-per-minute:600}") int adminPerMinute) {
+        this.enabled = enabled;
+        this.customerRate = new Rate(customerCapacity, customerPerMinute);
+        this.adminRate = new Rate(adminCapacity, adminPerMinute);
+        long refillNanos = Math.max(customerRate.burstNanos, adminRate.burstNanos);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(Duration.ofNanos(refillNanos))
+                .build();
+    }
+
+    /**
+     * Take one token from the user's bucket.
+     *
+     * @param user the authenticated user
+     * @throws TooManyRequestsException if the bucket is empty
+     */
+    public void acquire(User user) {
+        if (!enabled) {
+            return;
+        }
+        long waitNanos = tryAcquire(user.getId(), user.getRole(), System.nanoTime());
+        if (waitNanos > 0) {
+            throw new TooManyRequestsException("Too many order requests, please slow down",
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999)));
+        }
+    }
+
+    /**
+     * Take one token at the given time.
+     *
+     * @return 0 if a token was taken, otherwise nanoseconds until the next token
+     */
+    long tryAcquire(long userId, UserRole role, long now) {
+        Rate rate = role == UserRole.ADMIN ? adminRate : customerRate;
+        long waitNanos = buckets.get(userId, id -> new Bucket(now - rate.burstNanos)).tryAcquire(now, rate);
+        (waitNanos > 0 ? rejected : allowed).increment();
+        return waitNanos;
+    }
+
+    /**
+     * Get limiter statistics.
+     *
+     * @return allowed and rejected counts and the number of tracked users
+     */
+    public Map<String, Long> stats() {
+        return Map.of(
+                "allowed", allowed.sum(),
+                "rejected", rejected.sum(),
+                "tracked_users", buckets.estimatedSize());
+    }
+
+    private static final class Rate {
+        private final long intervalNanos;
+        private final long burstNanos;
+
+        private Rate(int capacity, int perMinute) {
+            if (capacity < 1 || perMinute < 1) {
+                throw new IllegalArgumentException("Rate limit capacity and refill rate must be positive");
+            }
+            this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / perMinute;
+            this.burstNanos = intervalNanos * capacity;
+        }
+    }
+
+    /**
+     * Time at which the bucket was empty: it holds one token per interval elapsed since,
+     * up to capacity.
+     */
+    private static final class Bucket extends AtomicLong {
+
+        private Bucket(long tat) {
+            super(tat);
+        }
+
+        private long tryAcquire(long now, Rate rate) {
+            while (true) {
+                long tat = get();
+                long next = Math.max(tat, now - rate.burstNanos) + rate.intervalNanos;
+                long waitNanos = next - now;
+                if (waitNanos > 0) {
+                    return waitNanos;
+                }
+                if (compareAndSet(tat, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.demo.component;
+
+import com.example.demo.model.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination of outbox events.
+ * Delivery is at least once: after a failure the whole batch is retried, so sinks should
+ * de-duplicate on the event ID if they care.
+ */
+public interface OutboxSink {
+
+    /**
+     * Get the sink name used in logs and metrics.
+     *
+     * @return the sink name
+     */
+    String getName();
+
+    /**
+     * Publish a batch of events, in ID order.
+     *
+     * @param events the events
+     * @throws Exception if the batch could not be published
+     */
+    void publish(List<OutboxEvent> events) throws Exception;
+}
@@ -0,0 +1,139 @@
+package com.example.demo.component;
+
+import com.example.demo.dto.response.ProductResponseDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Size-bounded cache of mapped products for the public catalog endpoints.
+ * Caffeine evicts by W-TinyLFU, so a burst of one-off lookups does not push out the hot products.
+ * Entries are dropped after every committed change of the product or its stock on this node and
+ * expire after {@code app.product-cache.ttl-seconds}, which bounds staleness from other nodes.
+ * Caffeine's bulk load is not atomic with invalidation, so every invalidation is stamped and a
+ * load that an invalidation overtook is dropped again instead of living until it expires.
+ * Cached DTOs are shared and must not be modified.
+ */
+@Component
+public class ProductCache {
+
+    @Value("${app.product-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${app.product-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private Cache<Long, ProductResponseDTO> products;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final Map<Long, Long> invalidatedAt = new ConcurrentHashMap<>();
+
+    private volatile long allInvalidatedAt;
+
+    @PostConstruct
+    public void init() {
+        products = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Get several products, loading all missing ones with a single call.
+     *
+     * @param productIds the product IDs
+     * @param loader loads the missing products; products it omits do not exist and are not cached
+     * @return the found products by ID
+     */
+    public Map<Long, ProductResponseDTO> getAll(Collection<Long> productIds,
+                                                Function<Set<Long>, Map<Long, ProductResponseDTO>> loader) {
+        AtomicLong loadStarted = new AtomicLong(-1);
+        Set<Long> loadedIds = new HashSet<>();
+        Map<Long, ProductResponseDTO> found = products.getAll(productIds, missing -> {
+            loadStarted.set(clock.get());
+            Map<Long, ProductResponseDTO> loaded = loader.apply(Set.copyOf(missing));
+            loadedIds.addAll(loaded.keySet());
+            return loaded;
+        });
+        long started = loadStarted.get();
+        if (started >= 0) {
+            // Caffeine cached the loaded products on return; drop the ones invalidated since the load began
+            for (Long productId : loadedIds) {
+                if (allInvalidatedAt > started || invalidatedAt.getOrDefault(productId, 0L) > started) {
+                    products.invalidate(productId);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Drop a product once the current transaction commits, or now without one.
+     */
+    public void invalidateAfterCommit(Long productId) {
+        afterCommit(() -> {
+            invalidatedAt.put(productId, clock.incrementAndGet());
+            products.invalidate(productId);
+        });
+    }
+
+    /**
+     * Drop every product once the current transaction commits, e.g. after a category was renamed.
+     */
+    public void invalidateAllAfterCommit() {
+        afterCommit(() -> {
+            allInvalidatedAt = clock.incrementAndGet();
+            products.invalidateAll();
+        });
+    }
+
+    private void afterCommit(Runnable invalidation) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        } else {
+            invalidation.run();
+        }
+    }
+
+    /**
+     * Get cache statistics.
+     *
+     * @return size, hits, misses, evictions, hit rate and load times
+     */
+    public Map<String, Object> stats() {
+        CacheStats stats = products.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", products.estimatedSize());
+        result.put("max_size", maxSize);
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hit_rate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        result.put("loads", stats.loadCount());
+        result.put("load_failures", stats.loadFailureCount());
+        result.put("average_load_ms", stats.averageLoadPenalty() / 1_000_000.0);
+        return result;
+    }
+}
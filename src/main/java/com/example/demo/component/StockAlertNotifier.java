@@ -0,0 +1,15 @@
+package com.example.demo.component;
+
+/**
+ * Destination of low-stock alerts.
+ * Every notifier bean receives every alert on the alert thread, never on a checkout thread.
+ */
+public interface StockAlertNotifier {
+
+    /**
+     * Deliver an alert. Exceptions are logged and do not reach other notifiers.
+     *
+     * @param alert the alert
+     */
+    void notify(StockWatermarkMonitor.Alert alert);
+}
@@ -0,0 +1,254 @@
+package com.example.demo.component;
+
+import com.example.demo.model.entity.StockWatermark;
+import com.example.demo.repository.mysql.StockWatermarkRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Raises low-stock alerts from the available counts kept by {@link InventoryLedger}.
+ * The ledger reports every committed change of a product, so a check is two map lookups
+ * instead of a scan of the accounts table. A product enters the low state once its count
+ * drops to the low watermark and leaves it only when the count reaches the high watermark;
+ * one alert is sent per transition. Notifiers run on a separate thread.
+ */
+@Slf4j
+@Component
+public class StockWatermarkMonitor {
+
+    public enum AlertType {
+        LOW_STOCK, STOCK_RECOVERED
+    }
+
+    /**
+     * A crossed watermark.
+     *
+     * @param type LOW_STOCK or STOCK_RECOVERED
+     * @param productId the product ID
+     * @param available available accounts when the watermark was crossed
+     * @param lowWatermark the low watermark of the product
+     * @param highWatermark the high watermark of the product
+     * @param at when the watermark was crossed
+     */
+    public record Alert(AlertType type, Long productId, long available, int lowWatermark, int highWatermark,
+                        Instant at) {
+    }
+
+    private record Watermark(int low, int high) {
+    }
+
+    private static class LowStock {
+        private final Instant since;
+        private volatile long available;
+
+        LowStock(Instant since, long available) {
+            this.since = since;
+            this.available = available;
+        }
+    }
+
+    private final StockWatermarkRepository stockWatermarkRepository;
+    private final List<StockAlertNotifier> notifiers;
+    private final Watermark defaults;
+    private final Map<Long, Watermark> watermarks = new ConcurrentHashMap<>();
+    private final Map<Long, LowStock> lowProducts = new ConcurrentHashMap<>();
+
+    private final ExecutorService alerts = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "stock-alerts");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public StockWatermarkMonitor(StockWatermarkRepository stockWatermarkRepository,
+                                 List<StockAlertNotifier> notifiers,
+                                 @Value("${app.stock-alerts.default-low-watermark:5}") int defaultLow,
+                                 @Value("${app.stock-alerts.default-high-watermark:10}") int defaultHigh) {
+        this.stockWatermarkRepository = stockWatermarkRepository;
+        this.notifiers = notifiers;
+        // A negative default low watermark disables alerts for products without their own watermarks
+        this.defaults = new Watermark(defaultLow, Math.max(defaultHigh, defaultLow + 1));
+    }
+
+    /**
+     * Load the per-product watermarks before the ledger reports its first counts.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void loadOnStartup() {
+        try {
+            for (StockWatermark watermark : stockWatermarkRepository.findAll()) {
+                watermarks.put(watermark.getProductId(),
+                        new Watermark(watermark.getLowWatermark(), watermark.getHighWatermark()));
+            }
+            log.info("Loaded stock watermarks for {} products", watermarks.size());
+        } catch (Exception e) {
+            log.warn("Stock watermarks not loaded, using defaults for every product: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Check a new available count of a product against its watermarks.
+     *
+     * @param productId the product ID
+     * @param available the available accounts after the change; negative when unknown
+     * @return the alert sent, or null if no watermark was crossed
+     */
+    public Alert evaluate(Long productId, long available) {
+        if (available < 0) {
+            return null;
+        }
+        Watermark watermark = watermarks.getOrDefault(productId, defaults);
+        if (watermark.low() < 0) {
+            return null;
+        }
+        Alert alert = null;
+        if (available <= watermark.low()) {
+            LowStock low = lowProducts.get(productId);
+            if (low != null) {
+                low.available = available;
+            } else if (lowProducts.putIfAbsent(productId, new LowStock(Instant.now(), available)) == null) {
+                alert = new Alert(AlertType.LOW_STOCK, productId, available, watermark.low(), watermark.high(), Instant.now());
+            }
+        } else if (available >= watermark.high()) {
+            if (lowProducts.remove(productId) != null) {
+                alert = new Alert(AlertType.STOCK_RECOVERED, productId, available, watermark.low(), watermark.high(), Instant.now());
+            }
+        } else {
+            // Between the watermarks the product keeps its state
+            LowStock low = lowProducts.get(productId);
+            if (low != null) {
+                low.available = available;
+            }
+        }
+        if (alert != null) {
+            send(alert);
+        }
+        return alert;
+    }
+
+    /**
+     * Check the counts of many products, e.g. after the ledger was rebuilt.
+     * Products with their own watermarks but no count are treated as sold out.
+     *
+     * @param counts available accounts per product
+     */
+    public void evaluateAll(Map<Long, Long> counts) {
+        counts.forEach(this::evaluate);
+        for (Long productId : watermarks.keySet()) {
+            if (!counts.containsKey(productId)) {
+                evaluate(productId, 0);
+            }
+        }
+    }
+
+    /**
+     * Store the watermarks of a product.
+     *
+     * @param productId the product ID
+     * @param low alert once available accounts drop to this count
+     * @param high clear the alert once available accounts reach this count
+     */
+    public void setWatermarks(Long productId, int low, int high) {
+        StockWatermark entity = stockWatermarkRepository.findById(productId).orElseGet(StockWatermark::new);
+        entity.setProductId(productId);
+        entity.setLowWatermark(low);
+        entity.setHighWatermark(high);
+        entity.setUpdated(Instant.now());
+        stockWatermarkRepository.save(entity);
+        watermarks.put(productId, new Watermark(low, high));
+    }
+
+    /**
+     * Remove the watermarks of a product; it falls back to the defaults.
+     *
+     * @param productId the product ID
+     * @return true if the product had its own watermarks
+     */
+    public boolean removeWatermarks(Long productId) {
+        if (watermarks.remove(productId) == null) {
+            return false;
+        }
+        stockWatermarkRepository.deleteById(productId);
+        return true;
+    }
+
+    /**
+     * Get the default watermarks and those of every product that has its own.
+     *
+     * @return the watermarks
+     */
+    public Map<String, Object> getWatermarks() {
+        Map<Long, Map<String, Integer>> products = new LinkedHashMap<>();
+        watermarks.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> products.put(entry.getKey(), toMap(entry.getValue())));
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("defaults", toMap(defaults));
+        result.put("products", products);
+        return result;
+    }
+
+    /**
+     * List the products currently below their watermark, longest first.
+     *
+     * @return product ID, available accounts, watermarks and time of the alert
+     */
+    public List<Map<String, Object>> getLowStockProducts() {
+        List<Map<String, Object>> products = new ArrayList<>();
+        lowProducts.entrySet().stream()
+                .sorted(Comparator.comparing(entry -> entry.getValue().since))
+                .forEach(entry -> {
+                    Watermark watermark = watermarks.getOrDefault(entry.getKey(), defaults);
+                    Map<String, Object> product = new LinkedHashMap<>();
+                    product.put("product_id", entry.getKey());
+                    product.put("available", entry.getValue().available);
+                    product.put("low_watermark", watermark.low());
+                    product.put("high_watermark", watermark.high());
+                    product.put("since", entry.getValue().since);
+                    products.add(product);
+                });
+        return products;
+    }
+
+    private void send(Alert alert) {
+        alerts.execute(() -> {
+            for (StockAlertNotifier notifier : notifiers) {
+                try {
+                    notifier.notify(alert);
+                } catch (RuntimeException e) {
+                    log.warn("Stock alert notifier {} failed: {}", notifier.getClass().getSimpleName(), e.getMessage());
+                }
+            }
+        });
+    }
+
+    private static Map<String, Integer> toMap(Watermark watermark) {
+        Map<String, Integer> map = new LinkedHashMap<>();
+        map.put("low_watermark", watermark.low());
+        map.put("high_watermark", watermark.high());
+        return map;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        alerts.shutdown();
+    }
+}
@@ -1,16 +1,52 @@
 package com.example.demo.config;
 
+import com.example.demo.dto.response.AccountResponseDTO;
+import com.example.demo.dto.response.OrderItemResponseDTO;
+import com.example.demo.dto.response.OrderResponseDTO;
+import com.example.demo.model.entity.Order;
+import com.example.demo.model.entity.OrderItem;
+import com.example.demo.model.enums.AccountStatus;
 import org.modelmapper.ModelMapper;
 import org.modelmapper.convention.MatchingStrategies;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.List;
+
 @Configuration
 public class ModelMapperConfig {
 
     @Bean
     public ModelMapper modelMapper() {
-//
-        return new ModelMapper();
+        ModelMapper modelMapper = new ModelMapper();
+        // Credentials are only delivered once paid: accounts held by a PENDING order are
+        // returned without username and password, so they cannot leak before the hold expires
+        modelMapper.typeMap(Order.class, OrderResponseDTO.class).setPostConverter(context -> {
+            OrderResponseDTO order = context.getDestination();
+            if (order.getOrderItems() != null) {
+                order.getOrderItems().forEach(item -> hideUndeliveredCredentials(item.getAccounts()));
+            }
+            return order;
+        });
+        modelMapper.typeMap(OrderItem.class, OrderItemResponseDTO.class).setPostConverter(context -> {
+            hideUndeliveredCredentials(context.getDestination().getAccounts());
+            return context.getDestination();
+        });
+        return modelMapper;
+    }
+
+    /**
+     * Clear the credentials of every account that is not SOLD.
+     */
+    static void hideUndeliveredCredentials(List<AccountResponseDTO> accounts) {
+        if (accounts == null) {
+            return;
+        }
+        for (AccountResponseDTO account : accounts) {
+            if (!AccountStatus.SOLD.name().equals(account.getStatus())) {
+                account.setUsername(null);
+                account.setPassword(null);
+            }
+        }
     }
 }
@@ -32,7 +32,9 @@ public class WebSecurityConfig {
                                         "/api/v1/category/{id}",
                                         "/api/v1/category/getAll",
                                         "/api/v1/product_img/**",
-                                        "/api/v1/order/{id}"
+                                        "/api/v1/order/{id}",
+                                        "/api/v1/account/availability",
+                                        "/api/v1/account/product/{productId}/in-stock"
                                 ).permitAll()
                                 .anyRequest()
                                 .authenticated());
@@ -1,21 +1,55 @@
 package com.example.demo.controller;
 
+import com.example.demo.component.AccountExporter;
+import com.example.demo.component.AccountFingerprintIndex;
+import com.example.demo.component.AccountImportExecutor;
+import com.example.demo.component.AccountImportParser;
+import com.example.demo.component.CursorPagination;
 import com.example.demo.dto.request.AccountRequestDTO;
 import com.example.demo.dto.response.AccountResponseDTO;
+import com.example.demo.dto.response.CursorPageResponseDTO;
+import com.example.demo.dto.response.PurchasedAccountDTO;
 import com.example.demo.model.entity.Account;
+import com.example.demo.model.enums.AccountStatus;
 import com.example.demo.service.AccountService;
+import com.example.demo.service.OrderArchiveService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.modelmapper.ModelMapper;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * REST controller for Account (virtual goods) operations.
@@ -31,6 +65,27 @@ public class AccountController {
     @Autowired
     private ModelMapper modelMapper;
 
+    @Autowired
+    private CursorPagination cursorPagination;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private AccountImportExecutor accountImportExecutor;
+
+    @Autowired
+    private AccountFingerprintIndex accountFingerprintIndex;
+
+    @Autowired
+    private AccountExporter accountExporter;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Value("${app.availability.max-products:500}")
+    private int maxAvailabilityProducts;
+
     /**
      * Create a new account (virtual goods).
      * 
@@ -44,6 +99,177 @@ public class AccountController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    /**
+     * Import accounts from an uploaded CSV or NDJSON file in the background.
+     *
+     * @param file the uploaded file
+     * @param format csv or ndjson; guessed from the file name when omitted
+     * @return the progress of the import job
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<Map<String, Object>> importAccounts(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "format", required = false) String format) throws IOException {
+        AccountImportParser.Format importFormat =
+                AccountImportParser.Format.resolve(format, file.getOriginalFilename(), file.getContentType());
+        try (InputStream source = file.getInputStream()) {
+            return importAccepted(accountImportExecutor.submit(source, importFormat));
+        }
+    }
+
+    /**
+     * Import accounts from a raw CSV or NDJSON request body in the background.
+     *
+     * @param request the request whose body is streamed
+     * @param format csv or ndjson; taken from the content type when omitted
+     * @return the progress of the import job
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "text/plain", "application/x-ndjson",
+            MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<Map<String, Object>> importAccountsStream(
+            HttpServletRequest request,
+            @RequestParam(value = "format", required = false) String format) throws IOException {
+        AccountImportParser.Format importFormat =
+                AccountImportParser.Format.resolve(format, null, request.getContentType());
+        try (InputStream source = request.getInputStream()) {
+            return importAccepted(accountImportExecutor.submit(source, importFormat));
+        }
+    }
+
+    /**
+     * Export accounts as CSV or NDJSON, streamed straight from the database in ID order.
+     *
+     * @param format csv (default) or ndjson
+     * @param gzip whether to gzip the export
+     * @param productId only accounts of this product
+     * @param status only accounts with this status
+     * @param soldFrom only accounts sold at or after this ISO-8601 instant
+     * @param soldTo only accounts sold before this ISO-8601 instant
+     * @param response the response to write to
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public void exportAccounts(
+            @RequestParam(value = "format", defaultValue = "csv") String format,
+            @RequestParam(value = "gzip", defaultValue = "false") boolean gzip,
+            @RequestParam(value = "productId", required = false) Long productId,
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "soldFrom", required = false) String soldFrom,
+            @RequestParam(value = "soldTo", required = false) String soldTo,
+            HttpServletResponse response) throws IOException {
+        AccountImportParser.Format exportFormat;
+        try {
+            exportFormat = AccountImportParser.Format.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Export format must be csv or ndjson");
+        }
+        AccountStatus accountStatus = null;
+        if (status != null && !status.isBlank()) {
+            try {
+                accountStatus = AccountStatus.valueOf(status.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid account status: " + status);
+            }
+        }
+        AccountExporter.Filter filter = new AccountExporter.Filter(productId, accountStatus,
+                parseInstant("soldFrom", soldFrom), parseInstant("soldTo", soldTo));
+        if (filter.soldFrom() != null && filter.soldTo() != null && !filter.soldFrom().isBefore(filter.soldTo())) {
+            throw new IllegalArgumentException("soldFrom must be before soldTo");
+        }
+
+        String filename = "accounts-export." + (exportFormat == AccountImportParser.Format.CSV ? "csv" : "ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        if (gzip) {
+            response.setContentType("application/gzip");
+            filename += ".gz";
+        } else {
+            response.setContentType(exportFormat == AccountImportParser.Format.CSV ? "text/csv" : "application/x-ndjson");
+        }
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+
+        if (gzip) {
+            GZIPOutputStream out = new GZIPOutputStream(response.getOutputStream(), 64 * 1024);
+            accountExporter.export(filter, exportFormat, out);
+            out.finish();
+        } else {
+            accountExporter.export(filter, exportFormat, response.getOutputStream());
+        }
+    }
+
+    private Instant parseInstant(String name, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Instant.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(name + " must be an ISO-8601 instant, e.g. 2026-01-01T00:00:00Z");
+        }
+    }
+
+    /**
+     * Get the progress of an account import.
+     *
+     * @param jobId the job ID
+     * @return lines read, imported and rejected counts, and percentage of the file processed
+     */
+    @GetMapping("/import/{jobId}")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<Map<String, Object>> getImportProgress(@PathVariable("jobId") String jobId) {
+        return ResponseEntity.ok(accountImportExecutor.getProgress(jobId));
+    }
+
+    /**
+     * Download the rejected lines of an account import.
+     *
+     * @param jobId the job ID
+     * @return CSV report with the line number and reason of every rejected line
+     */
+    @GetMapping("/import/{jobId}/errors")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<Resource> getImportErrors(@PathVariable("jobId") String jobId) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"import-" + jobId + "-errors.csv\"")
+                .body(new FileSystemResource(accountImportExecutor.getErrorReport(jobId)));
+    }
+
+    /**
+     * Compute the fingerprints of accounts created before duplicate detection existed.
+     * Accounts repeating an earlier product and username keep no fingerprint and are counted as duplicates.
+     *
+     * @param chunkSize number of account IDs per transaction (default: 5000)
+     * @return fingerprinted accounts and remaining duplicates
+     */
+    @PostMapping("/fingerprints/backfill")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<Map<String, Long>> backfillFingerprints(
+            @RequestParam(value = "chunkSize", defaultValue = "5000") int chunkSize) {
+        if (chunkSize < 1 || chunkSize > 100_000) {
+            throw new IllegalArgumentException("chunkSize must be between 1 and 100000");
+        }
+        return ResponseEntity.ok(accountService.backfillFingerprints(chunkSize));
+    }
+
+    /**
+     * Get the counters of the duplicate-credential filter.
+     *
+     * @return filter size, load state, checks and possible duplicates sent to the database
+     */
+    @GetMapping("/fingerprints/stats")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<Map<String, Object>> getFingerprintStats() {
+        return ResponseEntity.ok(accountFingerprintIndex.stats());
+    }
+
+    private ResponseEntity<Map<String, Object>> importAccepted(Map<String, Object> progress) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/account/import/" + progress.get("job_id")))
+                .body(progress);
+    }
+
     /**
      * Get an account by ID.
      * 
@@ -63,23 +289,88 @@ public class AccountController {
     @GetMapping("/sold/user/{id}")
     @PreAuthorize("hasRole('ROLE_ADMIN') or hasRole('ROLE_CUSTOMER')")
     public ResponseEntity<?> getSoldAccountByUserId(@PathVariable("id") Long id) {
-        List<Account> accounts = accountService.findSoldAccountsByUserId(id);
+        List<AccountResponseDTO> accounts = new ArrayList<>();
+        for (Account account : accountService.findSoldAccountsByUserId(id)) {
+            accounts.add(modelMapper.map(account, AccountResponseDTO.class));
+        }
+        // Accounts of archived orders are no longer in MySQL
+        accounts.addAll(orderArchiveService.findArchivedSoldAccounts(id));
         return ResponseEntity.ok(accounts);
     }
 
+    /**
+     * Get the accounts bought by a user, most recently sold first, with keyset pagination.
+     * Accounts of archived orders are included. Customers may only read their own purchases.
+     *
+     * @param id the user ID
+     * @param cursor next_cursor of the previous page (omit for the first page)
+     * @param size page size (default: 20, capped server-side)
+     * @param withTotal whether to include the total number of purchased accounts
+     * @return page of purchased accounts
+     */
+    @GetMapping("/purchases/user/{id}")
+    @PreAuthorize("hasRole('ROLE_ADMIN') or (hasRole('ROLE_CUSTOMER') and #id == authentication.principal.id)")
+    public ResponseEntity<CursorPageResponseDTO<PurchasedAccountDTO>> getPurchasedAccounts(
+            @PathVariable("id") Long id,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "withTotal", defaultValue = "false") boolean withTotal) {
+        return ResponseEntity.ok(accountService.getPurchasedAccounts(id, cursor, size, withTotal));
+    }
+
+    /**
+     * Stream every account bought by a user as NDJSON, one account per line, most recently sold first.
+     * Rows are written as the database returns them, followed by the accounts of archived orders.
+     * Customers may only read their own purchases.
+     *
+     * @param id the user ID
+     * @param response the response to write to
+     */
+    @GetMapping(value = "/purchases/user/{id}/stream", produces = "application/x-ndjson")
+    @PreAuthorize("hasRole('ROLE_ADMIN') or (hasRole('ROLE_CUSTOMER') and #id == authentication.principal.id)")
+    public void streamPurchasedAccounts(@PathVariable("id") Long id, HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        OutputStream out = new BufferedOutputStream(response.getOutputStream());
+        Consumer<PurchasedAccountDTO> writer = purchase -> {
+            try {
+                out.write(jsonMapper.writeValueAsBytes(purchase));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+        try {
+            accountService.streamPurchasedAccounts(id, writer);
+        } catch (UncheckedIOException e) {
+            // Client went away mid-stream
+            throw e.getCause();
+        }
+        out.flush();
+    }
+
     /**
      * Get all accounts with pagination.
+     * Pass {@code cursor} (empty for the first page) to use keyset pagination in ID order instead of page numbers.
      * 
      * @param page page number (default: 0)
-     * @param size page size (default: 10)
+     * @param size page size (default: 10, capped server-side)
+     * @param cursor next_cursor of the previous page, enables cursor mode
+     * @param withTotal in cursor mode, whether to include the total count
      * @return page of accounts
      */
     @GetMapping("/getAll")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
-    public ResponseEntity<Page<AccountResponseDTO>> getAllAccounts(
+    public ResponseEntity<?> getAllAccounts(
             @RequestParam(value = "page", defaultValue = "0") int page,
-            @RequestParam(value = "size", defaultValue = "10") int size) {
-        Pageable pageable = PageRequest.of(page, size);
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "withTotal", defaultValue = "false") boolean withTotal) {
+        if (cursor != null) {
+            CursorPageResponseDTO<Account> accounts = accountService.scrollAccounts(cursor, size, withTotal);
+            return ResponseEntity.ok(accounts.map(account -> modelMapper.map(account, AccountResponseDTO.class)));
+        }
+        Pageable pageable = PageRequest.of(page, cursorPagination.capSize(size));
         Page<Account> accounts = accountService.getAllAccounts(pageable);
         Page<AccountResponseDTO> response = accounts.map(account -> modelMapper.map(account, AccountResponseDTO.class));
         return ResponseEntity.ok(response);
@@ -117,6 +408,49 @@ public class AccountController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Count the available accounts of a product without loading them.
+     *
+     * @param productId the product ID
+     * @return the product ID and its available count
+     */
+    @GetMapping("/product/{productId}/available/count")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<Map<String, Long>> countAvailableAccountsByProduct(@PathVariable("productId") Long productId) {
+        long available = accountService.countAvailableAccounts(List.of(productId)).get(productId);
+        return ResponseEntity.ok(Map.of("product_id", productId, "available", available));
+    }
+
+    /**
+     * Check whether a product is in stock.
+     *
+     * @param productId the product ID
+     * @return the product ID and whether any account is available
+     */
+    @GetMapping("/product/{productId}/in-stock")
+    public ResponseEntity<Map<String, Object>> isInStock(@PathVariable("productId") Long productId) {
+        return ResponseEntity.ok(Map.of("product_id", productId, "in_stock", accountService.isInStock(productId)));
+    }
+
+    /**
+     * Get the available account counts of many products at once, e.g. for a product grid.
+     *
+     * @param productIds the product IDs
+     * @return available count per product ID
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<Map<Long, Long>> getAvailability(@RequestParam("productIds") List<Long> productIds) {
+        Set<Long> ids = new LinkedHashSet<>(productIds);
+        ids.remove(null);
+        if (ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one product id is required");
+        }
+        if (ids.size() > maxAvailabilityProducts) {
+            throw new IllegalArgumentException("At most " + maxAvailabilityProducts + " product ids are allowed");
+        }
+        return ResponseEntity.ok(accountService.countAvailableAccounts(ids));
+    }
+
     /**
      * Update an account.
      * 
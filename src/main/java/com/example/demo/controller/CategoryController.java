@@ -1,7 +1,9 @@
 package com.example.demo.controller;
 
+import com.example.demo.component.CursorPagination;
 import com.example.demo.dto.request.CategoryRequestDTO;
 import com.example.demo.dto.response.CategoryResponseDTO;
+import com.example.demo.dto.response.CursorPageResponseDTO;
 import com.example.demo.model.entity.Category;
 import com.example.demo.service.CategoryService;
 import com.example.demo.service.impl.FileStorageService;
@@ -39,6 +41,9 @@ public class CategoryController {
     @Autowired
     private org.modelmapper.ModelMapper modelMapper;
 
+    @Autowired
+    private CursorPagination cursorPagination;
+
     /**
      * Create a new category with optional image upload.
      * 
@@ -95,16 +100,25 @@ public class CategoryController {
 
     /**
      * Get all categories with pagination.
+     * Pass {@code cursor} (empty for the first page) to use keyset pagination in ID order instead of page numbers.
      * 
      * @param page page number (default: 0)
-     * @param size page size (default: 10)
+     * @param size page size (default: 10, capped server-side)
+     * @param cursor next_cursor of the previous page, enables cursor mode
+     * @param withTotal in cursor mode, whether to include the total count
      * @return page of categories
      */
     @GetMapping("/getAll")
-    public ResponseEntity<Page<CategoryResponseDTO>> getAllCategories(
+    public ResponseEntity<?> getAllCategories(
             @RequestParam(value = "page", defaultValue = "0") int page,
-            @RequestParam(value = "size", defaultValue = "10") int size) {
-        Pageable pageable = PageRequest.of(page, size);
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "withTotal", defaultValue = "false") boolean withTotal) {
+        if (cursor != null) {
+            CursorPageResponseDTO<Category> categories = categoryService.scrollCategories(cursor, size, withTotal);
+            return ResponseEntity.ok(categories.map(category -> modelMapper.map(category, CategoryResponseDTO.class)));
+        }
+        Pageable pageable = PageRequest.of(page, cursorPagination.capSize(size));
         Page<Category> categories = categoryService.getAllCategories(pageable);
         Page<CategoryResponseDTO> response = categories.map(category -> modelMapper.map(category, CategoryResponseDTO.class));
         return ResponseEntity.ok(response);
@@ -0,0 +1,83 @@
+package com.example.demo.controller;
+
+import com.example.demo.component.ClaimBuffer;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.service.ProductService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * REST controller for checkout claim buffers.
+ * Admin endpoints to enable and disable the buffer of a product and read its hit rate.
+ */
+@RestController
+@RequestMapping("api/v1/claim-buffer")
+@PreAuthorize("hasRole('ROLE_ADMIN')")
+public class ClaimBufferController {
+
+    @Autowired
+    private ClaimBuffer claimBuffer;
+
+    @Autowired
+    private ProductService productService;
+
+    @Value("${app.claim-buffer.default-size:256}")
+    private int defaultSize;
+
+    @Value("${app.claim-buffer.max-size:10000}")
+    private int maxSize;
+
+    /**
+     * Enable the claim buffer of a product.
+     *
+     * @param productId the product ID
+     * @param size number of buffered account IDs (default: app.claim-buffer.default-size)
+     * @param lowWatermark refill when this many IDs or fewer are left (default: a quarter of the size)
+     * @return the buffer statistics
+     */
+    @PostMapping("/{productId}")
+    public ResponseEntity<Map<String, Object>> enable(
+            @PathVariable("productId") Long productId,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "lowWatermark", required = false) Integer lowWatermark) {
+        productService.getProductById(productId);
+        int ringSize = size != null ? size : defaultSize;
+        if (ringSize < 1 || ringSize > maxSize) {
+            throw new IllegalArgumentException("Size must be between 1 and " + maxSize);
+        }
+        int watermark = lowWatermark != null ? lowWatermark : ringSize / 4;
+        if (watermark < 0 || watermark >= ringSize) {
+            throw new IllegalArgumentException("Low watermark must be between 0 and size - 1");
+        }
+        return ResponseEntity.ok(claimBuffer.enable(productId, ringSize, watermark));
+    }
+
+    /**
+     * Disable the claim buffer of a product.
+     *
+     * @param productId the product ID
+     * @return no content
+     */
+    @DeleteMapping("/{productId}")
+    public ResponseEntity<Void> disable(@PathVariable("productId") Long productId) {
+        if (!claimBuffer.disable(productId)) {
+            throw new ResourceNotFoundException("No claim buffer enabled for product id: " + productId);
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Get the statistics of all buffered products.
+     *
+     * @return fill level, hit rate and refill counters per product
+     */
+    @GetMapping
+    public ResponseEntity<Map<Long, Map<String, Object>>> getStats() {
+        return ResponseEntity.ok(claimBuffer.stats());
+    }
+}
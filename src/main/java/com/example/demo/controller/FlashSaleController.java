@@ -0,0 +1,71 @@
+package com.example.demo.controller;
+
+import com.example.demo.component.FlashSaleGate;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.service.ProductService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * REST controller for flash-sale admission control.
+ * Admin endpoints to arm and disarm flash-sale mode per product and read its counters.
+ */
+@RestController
+@RequestMapping("api/v1/flash-sale")
+@PreAuthorize("hasRole('ROLE_ADMIN')")
+public class FlashSaleController {
+
+    @Autowired
+    private FlashSaleGate flashSaleGate;
+
+    @Autowired
+    private ProductService productService;
+
+    /**
+     * Arm flash-sale mode for a product.
+     *
+     * @param productId the product ID
+     * @param tokens units to admit (default: current available stock)
+     * @param maxWaitMs how long a request may queue for tokens (default: 0, reject immediately)
+     * @return the sale counters
+     */
+    @PostMapping("/{productId}")
+    public ResponseEntity<Map<String, Object>> arm(
+            @PathVariable("productId") Long productId,
+            @RequestParam(value = "tokens", required = false) Integer tokens,
+            @RequestParam(value = "maxWaitMs", defaultValue = "0") long maxWaitMs) {
+        productService.getProductById(productId);
+        if (tokens != null && tokens < 0) {
+            throw new IllegalArgumentException("Tokens must be non-negative");
+        }
+        return ResponseEntity.ok(flashSaleGate.arm(productId, tokens, maxWaitMs));
+    }
+
+    /**
+     * Disarm flash-sale mode for a product.
+     *
+     * @param productId the product ID
+     * @return no content
+     */
+    @DeleteMapping("/{productId}")
+    public ResponseEntity<Void> disarm(@PathVariable("productId") Long productId) {
+        if (!flashSaleGate.disarm(productId)) {
+            throw new ResourceNotFoundException("No flash sale armed for product id: " + productId);
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Get the counters of all armed products.
+     *
+     * @return admitted, rejected and queued counters per product
+     */
+    @GetMapping
+    public ResponseEntity<Map<Long, Map<String, Object>>> getStats() {
+        return ResponseEntity.ok(flashSaleGate.stats());
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.demo.controller;
+
+import com.example.demo.component.InventoryLedger;
+import com.example.demo.component.StockWatermarkMonitor;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.scheduler.InventoryReconciler;
+import com.example.demo.scheduler.StockVerificationJob;
+import com.example.demo.service.ProductService;
+import com.example.demo.service.StockService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST controller for the in-memory inventory ledger.
+ * Admin endpoints to inspect, reconcile and rebuild available account counts.
+ */
+@RestController
+@RequestMapping("api/v1/inventory")
+@PreAuthorize("hasRole('ROLE_ADMIN')")
+public class InventoryController {
+
+    @Autowired
+    private InventoryLedger inventoryLedger;
+
+    @Autowired
+    private InventoryReconciler inventoryReconciler;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private StockVerificationJob stockVerificationJob;
+
+    @Autowired
+    private StockWatermarkMonitor stockWatermarkMonitor;
+
+    @Autowired
+    private ProductService productService;
+
+    /**
+     * Get available account counts per product as held by the ledger.
+     *
+     * @return map of product ID to available count
+     */
+    @GetMapping
+    public ResponseEntity<Map<Long, Long>> getLedger() {
+        return ResponseEntity.ok(inventoryLedger.snapshot());
+    }
+
+    /**
+     * Compare the ledger with the database now and correct drifting counters.
+     *
+     * @return drifting products with their ledger and database counts before correction
+     */
+    @GetMapping("/drift")
+    public ResponseEntity<Map<Long, Map<String, Long>>> getDrift() {
+        Map<Long, Map<String, Long>> response = new LinkedHashMap<>();
+        inventoryReconciler.reconcile().forEach((productId, counts) ->
+                response.put(productId, Map.of("ledger", counts[0], "database", counts[1])));
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Reload the ledger from the accounts table.
+     *
+     * @return number of products loaded
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuild() {
+        return ResponseEntity.ok(Map.of("products", inventoryLedger.rebuild()));
+    }
+
+    /**
+     * List the products currently below their low-stock watermark.
+     *
+     * @return product ID, available accounts, watermarks and alert time, longest first
+     */
+    @GetMapping("/low-stock")
+    public ResponseEntity<List<Map<String, Object>>> getLowStockProducts() {
+        return ResponseEntity.ok(stockWatermarkMonitor.getLowStockProducts());
+    }
+
+    /**
+     * Get the default low-stock watermarks and the products that have their own.
+     *
+     * @return the watermarks
+     */
+    @GetMapping("/watermarks")
+    public ResponseEntity<Map<String, Object>> getWatermarks() {
+        return ResponseEntity.ok(stockWatermarkMonitor.getWatermarks());
+    }
+
+    /**
+     * Set the low-stock watermarks of a product and check its current stock against them.
+     *
+     * @param productId the product ID
+     * @param low alert once available accounts drop to this count
+     * @param high clear the alert once available accounts reach this count
+     * @return the product's watermarks
+     */
+    @PutMapping("/watermarks/{productId}")
+    public ResponseEntity<Map<String, Object>> setWatermarks(
+            @PathVariable("productId") Long productId,
+            @RequestParam("low") int low,
+            @RequestParam("high") int high) {
+        productService.getProductById(productId);
+        if (low < 0 || high <= low) {
+            throw new IllegalArgumentException("Watermarks must satisfy 0 <= low < high");
+        }
+        stockWatermarkMonitor.setWatermarks(productId, low, high);
+        stockWatermarkMonitor.evaluate(productId, inventoryLedger.getAvailable(productId));
+        return ResponseEntity.ok(Map.of("product_id", productId, "low_watermark", low, "high_watermark", high));
+    }
+
+    /**
+     * Remove the low-stock watermarks of a product; it falls back to the defaults.
+     *
+     * @param productId the product ID
+     * @return no content
+     */
+    @DeleteMapping("/watermarks/{productId}")
+    public ResponseEntity<Void> removeWatermarks(@PathVariable("productId") Long productId) {
+        if (!stockWatermarkMonitor.removeWatermarks(productId)) {
+            throw new ResourceNotFoundException("No watermarks set for product id: " + productId);
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Recount product stock from the accounts table now and repair drifting counters.
+     *
+     * @return repaired products with their stored and actual stock
+     */
+    @PostMapping("/stock/verify")
+    public ResponseEntity<Map<Long, Map<String, Long>>> verifyStock() {
+        Map<Long, Map<String, Long>> response = new LinkedHashMap<>();
+        stockService.verifyStock(stockVerificationJob.getChunkSize()).forEach((productId, counts) ->
+                response.put(productId, Map.of("stored", counts[0], "actual", counts[1])));
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,10 +1,24 @@
 package com.example.demo.controller;
 
+import com.example.demo.component.BulkCancellationExecutor;
+import com.example.demo.component.CheckoutPipeline;
+import com.example.demo.component.CursorPagination;
+import com.example.demo.component.FlashSaleGate;
+import com.example.demo.component.OrderRateLimiter;
+import com.example.demo.dto.request.BulkCancelRequestDTO;
 import com.example.demo.dto.request.OrderItemRequestDTO;
 import com.example.demo.dto.request.OrderRequestDTO;
+import com.example.demo.dto.response.CursorPageResponseDTO;
 import com.example.demo.dto.response.OrderResponseDTO;
+import com.example.demo.dto.response.OrderSummaryResponseDTO;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.interceptor.RateLimited;
 import com.example.demo.model.entity.Order;
+import com.example.demo.model.enums.OrderStatus;
+import com.example.demo.service.IdempotencyService;
+import com.example.demo.service.OrderArchiveService;
 import com.example.demo.service.OrderService;
+import com.example.demo.service.OrderSummaryService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -12,11 +26,15 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * REST controller for Order operations.
@@ -32,17 +50,125 @@ public class  OrderController {
     @Autowired
     private org.modelmapper.ModelMapper modelMapper;
 
+    @Autowired
+    private CheckoutPipeline checkoutPipeline;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private FlashSaleGate flashSaleGate;
+
+    @Autowired
+    private BulkCancellationExecutor bulkCancellationExecutor;
+
+    @Autowired
+    private OrderSummaryService orderSummaryService;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private CursorPagination cursorPagination;
+
+    @Autowired
+    private OrderRateLimiter orderRateLimiter;
+
     /**
      * Create a new order.
+     * With {@code async=true} (and the async pipeline enabled) only the order intent is stored
+     * and 202 Accepted is returned; the accounts are claimed by the fulfillment workers.
+     * 
+     * A request repeating an {@code Idempotency-Key} gets the stored response back
+     * (with {@code Idempotent-Replayed: true}) and no new order is created.
      * 
      * @param dto order data with items
-     * @return the created order
+     * @param async whether to fulfill the order asynchronously
+     * @param idempotencyKey optional key identifying retries of the same request
+     * @return the created order, or the PROCESSING order intent
      */
     @PostMapping
     @PreAuthorize("hasRole('ROLE_ADMIN') or hasRole('ROLE_CUSTOMER')")
-    public ResponseEntity<OrderResponseDTO> createOrder(@Valid @RequestBody OrderRequestDTO dto) {
-        OrderResponseDTO response = orderService.createOrder(dto);
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    @RateLimited
+    public ResponseEntity<OrderResponseDTO> createOrder(
+            @Valid @RequestBody OrderRequestDTO dto,
+            @RequestParam(value = "async", defaultValue = "false") boolean async,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        boolean asyncCheckout = async && checkoutPipeline.isEnabled();
+        boolean idempotent = idempotencyKey != null && !idempotencyKey.isBlank();
+        if (idempotent && idempotencyKey.length() > 100) {
+            throw new IllegalArgumentException("Idempotency-Key must not exceed 100 characters");
+        }
+        Supplier<OrderResponseDTO> createOrder = () ->
+                asyncCheckout ? checkoutPipeline.submit(dto) : orderService.createOrder(dto);
+
+        // Flash-sale products are admitted before any transaction is opened or key is stored
+        FlashSaleGate.Admission admission = flashSaleGate.admit(dto);
+        OrderResponseDTO response;
+        boolean replayed = false;
+        try {
+            if (idempotent) {
+                IdempotencyService.IdempotentResult result =
+                        idempotencyService.createOrderOnce(idempotencyKey, dto.getUserId(), createOrder);
+                response = result.getResponse();
+                replayed = result.isReplayed();
+            } else {
+                response = createOrder.get();
+            }
+        } catch (RuntimeException e) {
+            admission.release();
+            throw e;
+        }
+        if (replayed) {
+            // The original request holds the units of the replayed order
+            admission.release();
+        }
+
+        HttpStatus status = "PROCESSING".equals(response.getStatus()) ? HttpStatus.ACCEPTED : HttpStatus.CREATED;
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(status)
+                .location(URI.create("/api/v1/order/" + response.getId()));
+        if (idempotent) {
+            builder.header("Idempotent-Replayed", String.valueOf(replayed));
+        }
+        return builder.body(response);
+    }
+
+    /**
+     * Subscribe to the outcome of an asynchronously created order (Server-Sent Events).
+     * A single {@code order} event is sent once the order has left PROCESSING.
+     * 
+     * @param id the order ID
+     * @param timeout subscription timeout in milliseconds (default: 30000)
+     * @return the event stream
+     */
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ROLE_ADMIN') or hasRole('ROLE_CUSTOMER')")
+    public SseEmitter subscribeOrder(
+            @PathVariable("id") Long id,
+            @RequestParam(value = "timeout", defaultValue = "30000") long timeout) {
+        return checkoutPipeline.subscribe(id, timeout);
+    }
+
+    /**
+     * Get the counters of the asynchronous checkout pipeline.
+     * 
+     * @return queue depth, worker count, back-pressure policy and throughput counters
+     */
+    @GetMapping("/async/metrics")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<Map<String, Object>> getCheckoutMetrics() {
+        return ResponseEntity.ok(checkoutPipeline.metrics());
+    }
+
+    /**
+     * Get the counters of the per-user order rate limiter.
+     *
+     * @return allowed and rejected calls and the number of tracked users
+     */
+    @GetMapping("/rate-limit")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<Map<String, Long>> getRateLimitStats() {
+        return ResponseEntity.ok(orderRateLimiter.stats());
     }
 
     /**
@@ -53,7 +179,13 @@ public class  OrderController {
      */
     @GetMapping("/{id}")
     public ResponseEntity<OrderResponseDTO> getOrderById(@PathVariable("id") Long id) {
-        Order order = orderService.getOrderById(id);
+        Order order;
+        try {
+            order = orderService.getOrderById(id);
+        } catch (ResourceNotFoundException e) {
+            // Old completed orders live in the archive
+            return ResponseEntity.ok(orderArchiveService.findArchivedOrder(id).orElseThrow(() -> e));
+        }
         OrderResponseDTO response = modelMapper.map(order, OrderResponseDTO.class);
         response.setUserId(order.getUser().getId());
         response.setUsername(order.getUser().getUsername());
@@ -63,36 +195,61 @@ public class  OrderController {
 
     /**
      * Get all orders with pagination.
+     * Pass {@code cursor} (empty for the first page) to use keyset pagination in ID order instead of page numbers.
      * 
      * @param page page number (default: 0)
-     * @param size page size (default: 10)
+     * @param size page size (default: 10, capped server-side)
+     * @param cursor next_cursor of the previous page, enables cursor mode
+     * @param withTotal in cursor mode, whether to include the total count
      * @return page of orders
      */
     @GetMapping("/getAll")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
-    public ResponseEntity<Page<OrderResponseDTO>> getAllOrders(
+    public ResponseEntity<?> getAllOrders(
             @RequestParam(value = "page", defaultValue = "0") int page,
-            @RequestParam(value = "size", defaultValue = "10") int size) {
-        Pageable pageable = PageRequest.of(page, size);
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "withTotal", defaultValue = "false") boolean withTotal) {
+        if (cursor != null) {
+            CursorPageResponseDTO<Order> orders = orderService.scrollOrders(cursor, size, withTotal);
+            return ResponseEntity.ok(orders.map(order -> modelMapper.map(order, OrderResponseDTO.class)));
+        }
+        Pageable pageable = PageRequest.of(page, cursorPagination.capSize(size));
         Page<Order> orders = orderService.getAllOrders(pageable);
         Page<OrderResponseDTO> response = orders.map(order -> modelMapper.map(order, OrderResponseDTO.class));
         return ResponseEntity.ok(response);
     }
 
     /**
-     * Get all orders for a specific user.
+     * Get the order history of a user, newest first, with keyset pagination.
+     * Returns summaries only; use GET /order/{id} for items and accounts.
      * 
      * @param userId the user ID
-     * @return list of user's orders
+     * @param cursor next_cursor of the previous page (omit for the first page)
+     * @param size page size (default: 20, capped server-side)
+     * @param withTotal whether to include the total number of orders
+     * @return page of order summaries
      */
     @GetMapping("/user/{userId}")
     @PreAuthorize("hasRole('ROLE_ADMIN') or hasRole('ROLE_CUSTOMER')")
-    public ResponseEntity<List<OrderResponseDTO>> getUserOrders(@PathVariable("userId") Long userId) {
-        List<Order> orders = orderService.getUserOrders(userId);
-        List<OrderResponseDTO> response = orders.stream()
-                .map(order -> modelMapper.map(order, OrderResponseDTO.class))
-                .toList();
-        return ResponseEntity.ok(response);
+    public ResponseEntity<CursorPageResponseDTO<OrderSummaryResponseDTO>> getUserOrders(
+            @PathVariable("userId") Long userId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "withTotal", defaultValue = "false") boolean withTotal) {
+        return ResponseEntity.ok(orderSummaryService.getUserOrders(userId, cursor, size, withTotal));
+    }
+
+    /**
+     * Archive old completed orders now instead of waiting for the scheduled run.
+     *
+     * @return number of archived orders and the archive size
+     */
+    @PostMapping("/archive")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<Map<String, Integer>> archiveOrders() {
+        int archived = orderArchiveService.archive();
+        return ResponseEntity.ok(Map.of("archived", archived, "archive_size", orderArchiveService.archiveSize()));
     }
 
     /**
@@ -104,6 +261,7 @@ public class  OrderController {
      */
     @PatchMapping("/{id}/status")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @RateLimited
     public ResponseEntity<OrderResponseDTO> updateOrderStatus(
             @PathVariable("id") Long id,
             @RequestBody Map<String, String> statusUpdate) {
@@ -111,11 +269,39 @@ public class  OrderController {
         if (status == null || status.isEmpty()) {
             throw new IllegalArgumentException("Status is required");
         }
-        Order updatedOrder = orderService.updateOrderStatus(id, status);
+        Order updatedOrder = orderService.updateOrderStatus(id, OrderStatus.parse(status));
         OrderResponseDTO response = modelMapper.map(updatedOrder, OrderResponseDTO.class);
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Cancel and refund many orders in the background.
+     * Orders are processed in chunks, each in its own transaction.
+     *
+     * @param dto the IDs of the orders to cancel
+     * @return the progress of the cancellation job
+     */
+    @PostMapping("/cancel")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<Map<String, Object>> cancelOrders(@Valid @RequestBody BulkCancelRequestDTO dto) {
+        Map<String, Object> progress = bulkCancellationExecutor.submit(dto.getOrderIds());
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/order/cancel/" + progress.get("job_id")))
+                .body(progress);
+    }
+
+    /**
+     * Get the progress of a bulk cancellation.
+     *
+     * @param jobId the job ID
+     * @return processed, cancelled, released and failed counts
+     */
+    @GetMapping("/cancel/{jobId}")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<Map<String, Object>> getCancellationProgress(@PathVariable("jobId") String jobId) {
+        return ResponseEntity.ok(bulkCancellationExecutor.getProgress(jobId));
+    }
+
     /**
      * Update order items.
      * Only orders with null status (draft/cart) can be updated.
@@ -126,6 +312,7 @@ public class  OrderController {
      */
     @PatchMapping("/{id}")
     @PreAuthorize("hasRole('ROLE_ADMIN') or hasRole('ROLE_CUSTOMER')")
+    @RateLimited
     public ResponseEntity<OrderResponseDTO> updateOrderDetail(
             @PathVariable("id") Long id,
             @Valid @RequestBody List<OrderItemRequestDTO> items) {
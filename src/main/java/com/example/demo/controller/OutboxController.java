@@ -0,0 +1,33 @@
+package com.example.demo.controller;
+
+import com.example.demo.service.OutboxService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * REST controller for the order event outbox.
+ */
+@RestController
+@RequestMapping("api/v1/outbox")
+@PreAuthorize("hasRole('ROLE_ADMIN')")
+public class OutboxController {
+
+    @Autowired
+    private OutboxService outboxService;
+
+    /**
+     * Get dispatcher throughput and lag metrics.
+     *
+     * @return published, failed and pending counts, events per second and lag
+     */
+    @GetMapping("/metrics")
+    public ResponseEntity<Map<String, Object>> getMetrics() {
+        return ResponseEntity.ok(outboxService.metrics());
+    }
+}
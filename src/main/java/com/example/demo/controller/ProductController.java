@@ -1,14 +1,13 @@
 package com.example.demo.controller;
 
+import com.example.demo.component.CursorPagination;
+import com.example.demo.component.ProductCache;
 import com.example.demo.dto.request.ProductRequestDTO;
 import com.example.demo.dto.response.ProductResponseDTO;
-import com.example.demo.model.entity.Product;
 import com.example.demo.service.ProductService;
 import jakarta.validation.Valid;
-import org.modelmapper.ModelMapper;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
@@ -16,6 +15,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 /**
  * REST controller for Product operations.
  * Provides endpoints for product CRUD operations.
@@ -29,7 +30,10 @@ public class ProductController {
     private ProductService productService;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private CursorPagination cursorPagination;
+
+    @Autowired
+    private ProductCache productCache;
 
     /**
      * Create a new product.
@@ -52,26 +56,41 @@ public class ProductController {
      */
     @GetMapping("/findById/{id}")
     public ResponseEntity<ProductResponseDTO> getProductById(@PathVariable("id") Long id) {
-        Product product = productService.getProductById(id);
-        ProductResponseDTO response = modelMapper.map(product, ProductResponseDTO.class);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(productService.getProductResponse(id));
     }
 
     /**
      * Get all products with pagination.
+     * Pass {@code cursor} (empty for the first page) to use keyset pagination in ID order instead of page numbers.
      * 
      * @param page page number (default: 0)
-     * @param size page size (default: 10)
+     * @param size page size (default: 10, capped server-side)
+     * @param cursor next_cursor of the previous page, enables cursor mode
+     * @param withTotal in cursor mode, whether to include the total count
      * @return page of products
      */
     @GetMapping("/getAll")
-    public ResponseEntity<Page<ProductResponseDTO>> getAllProducts(
+    public ResponseEntity<?> getAllProducts(
             @RequestParam(value = "page", defaultValue = "0") int page,
-            @RequestParam(value = "size", defaultValue = "10") int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Product> products = productService.getAllProducts(pageable);
-        Page<ProductResponseDTO> response = products.map(product -> modelMapper.map(product, ProductResponseDTO.class));
-        return ResponseEntity.ok(response);
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "withTotal", defaultValue = "false") boolean withTotal) {
+        if (cursor != null) {
+            return ResponseEntity.ok(productService.scrollProductResponses(cursor, size, withTotal));
+        }
+        Pageable pageable = PageRequest.of(page, cursorPagination.capSize(size));
+        return ResponseEntity.ok(productService.getProductResponses(pageable));
+    }
+
+    /**
+     * Get product cache statistics.
+     *
+     * @return size, hits, misses, evictions, hit rate and load times
+     */
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(productCache.stats());
     }
 
     /**
@@ -1,6 +1,8 @@
 package com.example.demo.controller;
 
+import com.example.demo.component.CursorPagination;
 import com.example.demo.dto.request.UserRequestDTO;
+import com.example.demo.dto.response.CursorPageResponseDTO;
 import com.example.demo.dto.response.UserResponseDTO;
 import com.example.demo.model.entity.User;
 import com.example.demo.model.entity.UserLoginDTO;
@@ -31,6 +33,9 @@ public class UserController {
     @Autowired
     private ModelMapper modelMapper;
 
+    @Autowired
+    private CursorPagination cursorPagination;
+
     /**
      * Create a new user.
      * 
@@ -71,17 +76,26 @@ public class UserController {
 
     /**
      * Get all users with pagination.
+     * Pass {@code cursor} (empty for the first page) to use keyset pagination in ID order instead of page numbers.
      * 
      * @param page page number (default: 0)
-     * @param size page size (default: 10)
+     * @param size page size (default: 10, capped server-side)
+     * @param cursor next_cursor of the previous page, enables cursor mode
+     * @param withTotal in cursor mode, whether to include the total count
      * @return page of users
      */
     @GetMapping("/getAll")
     @PreAuthorize("hasRole('ROLE_ADMIN')") // Only admins can access this endpoint
-    public ResponseEntity<Page<UserResponseDTO>> getAllUsers(
+    public ResponseEntity<?> getAllUsers(
             @RequestParam(value = "page", defaultValue = "0") int page,
-            @RequestParam(value = "size", defaultValue = "10") int size) {
-        Pageable pageable = PageRequest.of(page, size);
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "withTotal", defaultValue = "false") boolean withTotal) {
+        if (cursor != null) {
+            CursorPageResponseDTO<User> users = userService.scrollUsers(cursor, size, withTotal);
+            return ResponseEntity.ok(users.map(user -> modelMapper.map(user, UserResponseDTO.class)));
+        }
+        Pageable pageable = PageRequest.of(page, cursorPagination.capSize(size));
         Page<User> users = userService.getAllUsers(pageable);
         Page<UserResponseDTO> response = users.map(user -> modelMapper.map(user, UserResponseDTO.class));
         return ResponseEntity.ok(response);
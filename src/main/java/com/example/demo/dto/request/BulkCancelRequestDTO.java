@@ -0,0 +1,22 @@
+package com.example.demo.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request DTO for cancelling many orders at once.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCancelRequestDTO {
+
+    @NotEmpty(message = "Order IDs are mandatory")
+    @JsonProperty(value = "order_ids")
+    private List<Long> orderIds;
+}
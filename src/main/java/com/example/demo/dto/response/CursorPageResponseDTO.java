@@ -0,0 +1,44 @@
+package com.example.demo.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Response DTO for a keyset-paginated list.
+ * Pass {@code next_cursor} back as the {@code cursor} parameter to get the following page.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPageResponseDTO<T> {
+
+    private List<T> items;
+    private Integer size;
+    @JsonProperty(value = "next_cursor")
+    private String nextCursor;
+    @JsonProperty(value = "has_more")
+    private boolean hasMore;
+    /**
+     * Only filled when the total was requested.
+     */
+    private Long total;
+
+    /**
+     * Convert the items of this page, keeping the paging information.
+     *
+     * @param mapper converts one item
+     * @return the converted page
+     */
+    public <R> CursorPageResponseDTO<R> map(Function<T, R> mapper) {
+        return new CursorPageResponseDTO<>(items.stream().map(mapper).toList(), size, nextCursor, hasMore, total);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.demo.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Response DTO for an order in order history listings.
+ * Use GET /order/{id} for items and delivered accounts.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryResponseDTO {
+
+    private Long id;
+    @JsonProperty(value = "order_code")
+    private String orderCode;
+    private String status;
+    @JsonProperty(value = "total_amount")
+    private BigDecimal totalAmount;
+    @JsonProperty(value = "item_count")
+    private Integer itemCount;
+    @JsonProperty(value = "product_names")
+    private String productNames;
+    private Instant created;
+}
@@ -0,0 +1,34 @@
+package com.example.demo.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Response DTO for an account bought by a customer.
+ * Filled directly by a constructor-expression query, so the field order is the query's select order.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PurchasedAccountDTO {
+
+    private Long id;
+    @JsonProperty(value = "product_id")
+    private Long productId;
+    @JsonProperty(value = "product_name")
+    private String productName;
+    private String platform;
+    private String username;
+    private String password;
+    private Instant sold;
+    @JsonProperty(value = "order_id")
+    private Long orderId;
+    @JsonProperty(value = "order_code")
+    private String orderCode;
+}
@@ -0,0 +1,17 @@
+package com.example.demo.exception;
+
+/**
+ * Exception thrown when a request conflicts with the current state of a resource.
+ * This exception will be caught by the GlobalExceptionHandler and converted to a 409 response.
+ */
+public class ConflictException extends RuntimeException {
+
+    /**
+     * Constructs a new ConflictException with the specified detail message.
+     *
+     * @param message the detail message explaining the conflict
+     */
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.demo.exception;
+
+/**
+ * Exception thrown when a request is refused because a capacity limit was reached.
+ * This exception will be caught by the GlobalExceptionHandler and converted to a 429 response
+ * with a Retry-After header.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    /**
+     * Constructs a new TooManyRequestsException.
+     *
+     * @param message the detail message explaining which limit was reached
+     * @param retryAfterSeconds seconds the client should wait before retrying
+     */
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
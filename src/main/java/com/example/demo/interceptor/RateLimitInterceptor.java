@@ -0,0 +1,35 @@
+package com.example.demo.interceptor;
+
+import com.example.demo.component.OrderRateLimiter;
+import com.example.demo.model.entity.User;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Applies the per-user order rate limit to {@link RateLimited} handlers.
+ * Runs after {@code JwtTokenFilter} has authenticated the request and before the controller,
+ * so rejected calls never open a transaction or touch the connection pool.
+ */
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    @Autowired
+    private OrderRateLimiter orderRateLimiter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method && method.hasMethodAnnotation(RateLimited.class)) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.getPrincipal() instanceof User user) {
+                orderRateLimiter.acquire(user);
+            }
+        }
+        return true;
+    }
+}
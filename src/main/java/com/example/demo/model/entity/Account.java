@@ -1,6 +1,8 @@
 package com.example.demo.model.entity;
 
+import com.example.demo.model.enums.AccountStatus;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.Getter;
@@ -31,9 +33,9 @@ public class Account {
     private String password;
 
     @ColumnDefault("'CONTACT'")
-    @Lob
-    @Column(name = "status")
-    private String status;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private AccountStatus status;
 
     @Column(name = "sold")
     private Instant sold;
@@ -47,5 +49,12 @@ public class Account {
     @Column(name = "created")
     private Instant created;
 
+    /**
+     * First 16 bytes of SHA-256 over product ID and username, unique across all accounts.
+     */
+    @JsonIgnore
+    @Column(name = "fingerprint", length = 16, columnDefinition = "BINARY(16)")
+    private byte[] fingerprint;
+
 
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.example.demo.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Sold account of an archived order.
+ * Written by OrderArchiveService before the account row is deleted; never updated afterwards.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "archived_purchases", schema = "mydatabase")
+public class ArchivedPurchase {
+    @Id
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "product_name", nullable = false, length = 200)
+    private String productName;
+
+    @Column(name = "platform", length = 50)
+    private String platform;
+
+    @Column(name = "username", nullable = false, length = 500)
+    private String username;
+
+    @Column(name = "password", nullable = false, length = 500)
+    private String password;
+
+    @Column(name = "sold")
+    private Instant sold;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "order_code", nullable = false, length = 20)
+    private String orderCode;
+}
@@ -0,0 +1,36 @@
+package com.example.demo.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "idempotency_keys", schema = "mydatabase")
+@IdClass(IdempotencyKeyId.class)
+public class IdempotencyKey {
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Id
+    @Column(name = "idem_key", nullable = false, length = 100)
+    private String key;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Lob
+    @Column(name = "response")
+    private String response;
+
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(name = "created")
+    private Instant created;
+
+
+}
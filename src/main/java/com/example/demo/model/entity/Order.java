@@ -1,5 +1,6 @@
 package com.example.demo.model.entity;
 
+import com.example.demo.model.enums.OrderStatus;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
@@ -22,7 +23,7 @@ public class Order {
     @Column(name = "id", nullable = false)
     private Long id;
 
-    @Column(name = "order_code", nullable = false, length = 30)
+    @Column(name = "order_code", nullable = false, length = 20)
     private String orderCode;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -34,9 +35,12 @@ public class Order {
     private BigDecimal totalAmount;
 
     //@ColumnDefault("'PENDING'") //pending = reserved
-    @Lob
+    @Enumerated(EnumType.STRING)
     @Column(name = "status")
-    private String status;
+    private OrderStatus status;
+
+    @Column(name = "reserved_until")
+    private Instant reservedUntil;
 
     @Lob
     @Column(name = "customer_note")
@@ -0,0 +1,46 @@
+package com.example.demo.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Read model of an order for order history listings.
+ * Written by OrderSummaryService whenever the order changes; never loaded together with items.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "order_summaries", schema = "mydatabase")
+public class OrderSummary {
+    @Id
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "order_code", nullable = false, length = 20)
+    private String orderCode;
+
+    @Column(name = "status", length = 20)
+    private String status;
+
+    @Column(name = "total_amount", nullable = false, precision = 10, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "item_count", nullable = false)
+    private Integer itemCount;
+
+    @Column(name = "product_names", length = 1000)
+    private String productNames;
+
+    @Column(name = "created")
+    private Instant created;
+
+    @Column(name = "updated")
+    private Instant updated;
+}
@@ -0,0 +1,46 @@
+package com.example.demo.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "outbox_events", schema = "mydatabase")
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Column(name = "event_type", nullable = false, length = 50)
+    private String eventType;
+
+    @Lob
+    @Column(name = "payload", nullable = false)
+    private String payload;
+
+    @ColumnDefault("CURRENT_TIMESTAMP(3)")
+    @Column(name = "created")
+    private Instant created;
+
+    @Column(name = "sent")
+    private Instant sent;
+
+    @ColumnDefault("0")
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    @Column(name = "next_attempt")
+    private Instant nextAttempt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+}
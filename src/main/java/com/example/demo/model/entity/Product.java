@@ -54,8 +54,11 @@ public class Product {
     @Column(name = "active")
     private Boolean active;
 
+    /**
+     * Number of AVAILABLE accounts, maintained by StockService; entity updates never write it.
+     */
     @ColumnDefault("0")
-    @Column(name = "stock")
+    @Column(name = "stock", updatable = false)
     private Integer stock;
 
 
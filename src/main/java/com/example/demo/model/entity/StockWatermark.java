@@ -0,0 +1,31 @@
+package com.example.demo.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Low-stock alert thresholds of a product.
+ * An alert fires when available accounts drop to the low watermark and clears only once
+ * they climb back to the high watermark, so stock hovering around one value does not flap.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "stock_watermarks", schema = "mydatabase")
+public class StockWatermark {
+    @Id
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "low_watermark", nullable = false)
+    private Integer lowWatermark;
+
+    @Column(name = "high_watermark", nullable = false)
+    private Integer highWatermark;
+
+    @Column(name = "updated")
+    private Instant updated;
+}
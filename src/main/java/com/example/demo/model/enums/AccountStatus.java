@@ -0,0 +1,16 @@
+package com.example.demo.model.enums;
+
+/**
+ * Lifecycle of an account (credential) in inventory.
+ * Stored by name in the {@code accounts.status} ENUM column.
+ */
+public enum AccountStatus {
+    /** In stock and ready to be claimed by an order. */
+    AVAILABLE,
+    /** Held by a PENDING order until payment or expiry. */
+    RESERVED,
+    /** Delivered to the customer of a COMPLETED order. */
+    SOLD,
+    /** Sold on request; not handed out by checkout. */
+    CONTACT
+}
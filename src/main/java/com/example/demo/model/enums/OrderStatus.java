@@ -0,0 +1,33 @@
+package com.example.demo.model.enums;
+
+import java.util.Locale;
+
+/**
+ * Lifecycle of an order.
+ * Stored by name in the {@code orders.status} ENUM column; a draft order has no status.
+ */
+public enum OrderStatus {
+    /** Order intent waiting for asynchronous fulfillment. */
+    PROCESSING,
+    /** Accounts reserved, waiting for payment. */
+    PENDING,
+    /** Paid; accounts sold. */
+    COMPLETED,
+    /** Cancelled or refunded; accounts returned to inventory. */
+    CANCELLED;
+
+    /**
+     * Parse a status sent by a client.
+     *
+     * @param value the status name, case-insensitive
+     * @return the status
+     * @throws IllegalArgumentException if the value is not a known status
+     */
+    public static OrderStatus parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid order status: " + value);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.demo.model.enums;
+
+/**
+ * Role of a user, granted as the authority {@code ROLE_<name>}.
+ * Stored by name in the {@code users.role} ENUM column.
+ */
+public enum UserRole {
+    CUSTOMER,
+    ADMIN
+}
@@ -1,11 +1,23 @@
 package com.example.demo.repository.mysql;
 
+import com.example.demo.dto.response.PurchasedAccountDTO;
 import com.example.demo.model.entity.Account;
+import com.example.demo.model.entity.OrderItem;
+import com.example.demo.model.enums.AccountStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Account entity.
@@ -27,18 +39,104 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
         JOIN a.orderItem oi
         JOIN oi.order o
         WHERE o.user.id = :userId
-        AND a.status = 'SOLD'
-        AND o.status = 'COMPLETED'
+        AND a.status = com.example.demo.model.enums.AccountStatus.SOLD
+        AND o.status = com.example.demo.model.enums.OrderStatus.COMPLETED
     """)
     List<Account> findSoldAccountsByUserId(@Param("userId") Long userId);
 
+    /**
+     * Get the first page of accounts bought by a user, most recently sold first.
+     * Product and order columns come from the same join, so nothing is lazily loaded afterwards.
+     *
+     * @param userId the ID of the user
+     * @param limit the maximum number of rows
+     * @return the purchased accounts
+     */
+    @Query("""
+        SELECT new com.example.demo.dto.response.PurchasedAccountDTO(
+            a.id, p.id, p.name, p.platform, a.username, a.password, a.sold, o.id, o.orderCode)
+        FROM Account a
+        JOIN a.product p
+        JOIN a.orderItem oi
+        JOIN oi.order o
+        WHERE o.user.id = :userId
+        AND a.status = com.example.demo.model.enums.AccountStatus.SOLD
+        AND o.status = com.example.demo.model.enums.OrderStatus.COMPLETED
+        ORDER BY a.sold DESC, a.id DESC
+    """)
+    List<PurchasedAccountDTO> findPurchasedFirstPage(@Param("userId") Long userId, Limit limit);
+
+    /**
+     * Get the page of accounts bought by a user following the given position, most recently sold first.
+     *
+     * @param userId the ID of the user
+     * @param sold the sold time of the last row of the previous page
+     * @param id the ID of the last row of the previous page
+     * @param limit the maximum number of rows
+     * @return the purchased accounts
+     */
+    @Query("""
+        SELECT new com.example.demo.dto.response.PurchasedAccountDTO(
+            a.id, p.id, p.name, p.platform, a.username, a.password, a.sold, o.id, o.orderCode)
+        FROM Account a
+        JOIN a.product p
+        JOIN a.orderItem oi
+        JOIN oi.order o
+        WHERE o.user.id = :userId
+        AND a.status = com.example.demo.model.enums.AccountStatus.SOLD
+        AND o.status = com.example.demo.model.enums.OrderStatus.COMPLETED
+        AND (a.sold < :sold OR (a.sold = :sold AND a.id < :id))
+        ORDER BY a.sold DESC, a.id DESC
+    """)
+    List<PurchasedAccountDTO> findPurchasedPageAfter(@Param("userId") Long userId, @Param("sold") Instant sold,
+                                                     @Param("id") Long id, Limit limit);
+
+    /**
+     * Count the accounts bought by a user.
+     *
+     * @param userId the ID of the user
+     * @return number of purchased accounts
+     */
+    @Query("""
+        SELECT COUNT(a) FROM Account a
+        JOIN a.orderItem oi
+        JOIN oi.order o
+        WHERE o.user.id = :userId
+        AND a.status = com.example.demo.model.enums.AccountStatus.SOLD
+        AND o.status = com.example.demo.model.enums.OrderStatus.COMPLETED
+    """)
+    long countPurchasedByUserId(@Param("userId") Long userId);
+
+    /**
+     * Stream all accounts bought by a user, most recently sold first.
+     * The MySQL driver only streams rows instead of buffering the whole result when the fetch size
+     * is Integer.MIN_VALUE; the stream must be consumed and closed inside a transaction.
+     *
+     * @param userId the ID of the user
+     * @return the purchased accounts
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("""
+        SELECT new com.example.demo.dto.response.PurchasedAccountDTO(
+            a.id, p.id, p.name, p.platform, a.username, a.password, a.sold, o.id, o.orderCode)
+        FROM Account a
+        JOIN a.product p
+        JOIN a.orderItem oi
+        JOIN oi.order o
+        WHERE o.user.id = :userId
+        AND a.status = com.example.demo.model.enums.AccountStatus.SOLD
+        AND o.status = com.example.demo.model.enums.OrderStatus.COMPLETED
+        ORDER BY a.sold DESC, a.id DESC
+    """)
+    Stream<PurchasedAccountDTO> streamPurchasedByUserId(@Param("userId") Long userId);
+
     /**
      * Find all accounts with a specific status.
      * 
      * @param status the account status (e.g., AVAILABLE, SOLD, CONTACT)
      * @return list of accounts with the specified status
      */
-    List<Account> findByStatus(String status);
+    List<Account> findByStatus(AccountStatus status);
     
     /**
      * Find all accounts for a specific product with a specific status.
@@ -48,7 +146,361 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
      * @param status the account status
      * @return list of accounts matching both criteria
      */
-    List<Account> findByProductIdAndStatus(Long productId, String status);
+    List<Account> findByProductIdAndStatus(Long productId, AccountStatus status);
+
+    /**
+     * Count the accounts of a product with a specific status.
+     *
+     * @param productId the ID of the product
+     * @param status the account status
+     * @return number of matching accounts
+     */
+    long countByProductIdAndStatus(Long productId, AccountStatus status);
+
+    /**
+     * Check whether a product has at least one account with a specific status.
+     * Stops at the first matching index entry instead of counting them all.
+     *
+     * @param productId the ID of the product
+     * @param status the account status
+     * @return true if a matching account exists
+     */
+    boolean existsByProductIdAndStatus(Long productId, AccountStatus status);
+
+    /**
+     * Count AVAILABLE accounts for several products in one grouped query.
+     * Products without available accounts are absent from the result.
+     *
+     * @param productIds the IDs of the products
+     * @return rows of [product id, count]
+     */
+    @Query("SELECT a.product.id, COUNT(a) FROM Account a " +
+            "WHERE a.product.id IN :productIds AND a.status = com.example.demo.model.enums.AccountStatus.AVAILABLE " +
+            "GROUP BY a.product.id")
+    List<Object[]> countAvailableByProductIds(@Param("productIds") Collection<Long> productIds);
+
+    /**
+     * Count AVAILABLE accounts for every product.
+     *
+     * @return rows of [product id, count]
+     */
+    @Query("SELECT a.product.id, COUNT(a) FROM Account a " +
+            "WHERE a.status = com.example.demo.model.enums.AccountStatus.AVAILABLE GROUP BY a.product.id")
+    List<Object[]> countAvailableGroupByProduct();
+
+    /**
+     * Lock up to {@code quantity} available accounts of a product for the current transaction.
+     * Rows already locked by concurrent checkouts are skipped instead of waited on, so two buyers
+     * of the same product never receive the same credential and never block each other.
+     * Only the ids are read; cost depends on the requested quantity, not on inventory size.
+     *
+     * @param productId the ID of the product
+     * @param quantity the maximum number of accounts to lock
+     * @return ids of the locked accounts (may be fewer than requested when stock runs out)
+     */
+    @Query(value = """
+        SELECT a.id FROM accounts a
+        WHERE a.product_id = :productId
+        AND a.status = 'AVAILABLE'
+        ORDER BY a.id
+        LIMIT :quantity
+        FOR UPDATE SKIP LOCKED
+    """, nativeQuery = true)
+    List<Long> lockAvailableAccountIds(@Param("productId") Long productId, @Param("quantity") int quantity);
+
+    /**
+     * Lock the given accounts of a product that are still AVAILABLE, skipping rows locked by
+     * other transactions. Confirms IDs picked ahead of time without searching the index.
+     *
+     * @param productId the ID of the product
+     * @param ids the IDs of the candidate accounts
+     * @return IDs of the locked accounts
+     */
+    @Query(value = """
+        SELECT a.id FROM accounts a
+        WHERE a.id IN (:ids)
+        AND a.product_id = :productId
+        AND a.status = 'AVAILABLE'
+        FOR UPDATE SKIP LOCKED
+    """, nativeQuery = true)
+    List<Long> lockAvailableAccountIdsIn(@Param("productId") Long productId, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Read AVAILABLE account IDs of a product below an ID, highest first, without locking them.
+     *
+     * @param productId the ID of the product
+     * @param beforeId only IDs lower than this are returned
+     * @param limit the maximum number of IDs
+     * @return the account IDs
+     */
+    @Query(value = """
+        SELECT a.id FROM accounts a
+        WHERE a.product_id = :productId
+        AND a.status = 'AVAILABLE'
+        AND a.id < :beforeId
+        ORDER BY a.id DESC
+        LIMIT :limit
+    """, nativeQuery = true)
+    List<Long> findAvailableIdsBefore(@Param("productId") Long productId, @Param("beforeId") long beforeId,
+                                      @Param("limit") int limit);
+
+    /**
+     * Assign a set of claimed accounts to an order item in one statement.
+     * Callers must hold the row locks (see {@link #lockAvailableAccountIds}) and must not keep
+     * these accounts loaded as entities, so the persistence context never sees stale rows.
+     *
+     * @param ids the IDs of the accounts
+     * @param orderItem the order item receiving the accounts
+     * @param status the new status (RESERVED or SOLD)
+     * @param sold time of sale, null while reserved
+     * @return number of updated accounts
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Account a SET a.orderItem = :orderItem, a.status = :status, a.sold = :sold WHERE a.id IN :ids")
+    int assignToOrderItem(@Param("ids") Collection<Long> ids, @Param("orderItem") OrderItem orderItem,
+                          @Param("status") AccountStatus status, @Param("sold") Instant sold);
+
+    /**
+     * Return every account of the given order items to AVAILABLE in one statement.
+     *
+     * @param orderItemIds the IDs of the order items
+     * @return number of released accounts
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Account a SET a.orderItem = NULL, a.status = com.example.demo.model.enums.AccountStatus.AVAILABLE, " +
+            "a.sold = NULL WHERE a.orderItem.id IN :orderItemIds")
+    int releaseByOrderItemIds(@Param("orderItemIds") Collection<Long> orderItemIds);
+
+    /**
+     * Return the given number of accounts of one order item to AVAILABLE, newest first.
+     *
+     * @param orderItemId the ID of the order item
+     * @param count number of accounts to release
+     * @return number of released accounts
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE accounts SET order_item_id = NULL, status = 'AVAILABLE', sold = NULL " +
+            "WHERE order_item_id = :orderItemId ORDER BY id DESC LIMIT :count", nativeQuery = true)
+    int releaseFromOrderItem(@Param("orderItemId") Long orderItemId, @Param("count") int count);
+
+    /**
+     * Move every account of the given order items to another order item.
+     *
+     * @param orderItemIds the IDs of the source order items
+     * @param target the order item receiving the accounts
+     * @return number of moved accounts
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Account a SET a.orderItem = :target WHERE a.orderItem.id IN :orderItemIds")
+    int moveToOrderItem(@Param("orderItemIds") Collection<Long> orderItemIds, @Param("target") OrderItem target);
+
+    /**
+     * Find all accounts assigned to the given order items.
+     *
+     * @param orderItemIds the IDs of the order items
+     * @return list of assigned accounts
+     */
+    List<Account> findByOrderItemIdIn(Collection<Long> orderItemIds);
+
+    /**
+     * Count the RESERVED accounts held by the given orders, grouped by product.
+     *
+     * @param orderIds the IDs of the orders
+     * @return rows of [product_id, count]
+     */
+    @Query(value = """
+        SELECT a.product_id, COUNT(*) FROM accounts a
+        JOIN order_items oi ON oi.id = a.order_item_id
+        WHERE oi.order_id IN (:orderIds)
+        AND a.status = 'RESERVED'
+        GROUP BY a.product_id
+    """, nativeQuery = true)
+    List<Object[]> countReservedByProduct(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * Return the RESERVED accounts of the given orders to AVAILABLE in one statement.
+     *
+     * @param orderIds the IDs of the orders
+     * @return number of released accounts
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+        UPDATE accounts a
+        JOIN order_items oi ON oi.id = a.order_item_id
+        SET a.status = 'AVAILABLE', a.order_item_id = NULL
+        WHERE oi.order_id IN (:orderIds)
+        AND a.status = 'RESERVED'
+    """, nativeQuery = true)
+    int releaseReservedAccounts(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * Count the RESERVED or SOLD accounts held by the given orders, per product.
+     *
+     * @param orderIds the IDs of the orders
+     * @return rows of [product_id, count]
+     */
+    @Query(value = """
+        SELECT a.product_id, COUNT(*) FROM accounts a
+        JOIN order_items oi ON oi.id = a.order_item_id
+        WHERE oi.order_id IN (:orderIds)
+        AND a.status IN ('RESERVED', 'SOLD')
+        GROUP BY a.product_id
+    """, nativeQuery = true)
+    List<Object[]> countHeldByProduct(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * Return every RESERVED or SOLD account of the given orders to AVAILABLE in one statement.
+     *
+     * @param orderIds the IDs of the orders
+     * @return number of released accounts
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+        UPDATE accounts a
+        JOIN order_items oi ON oi.id = a.order_item_id
+        SET a.status = 'AVAILABLE', a.order_item_id = NULL, a.sold = NULL
+        WHERE oi.order_id IN (:orderIds)
+        AND a.status IN ('RESERVED', 'SOLD')
+    """, nativeQuery = true)
+    int releaseOrderAccounts(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * Turn the RESERVED accounts of an order into SOLD in one statement.
+     *
+     * @param orderId the ID of the order
+     * @param sold the time of sale
+     * @return number of sold accounts
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+        UPDATE accounts a
+        JOIN order_items oi ON oi.id = a.order_item_id
+        SET a.status = 'SOLD', a.sold = :sold
+        WHERE oi.order_id = :orderId
+        AND a.status = 'RESERVED'
+    """, nativeQuery = true)
+    int markReservedAccountsSold(@Param("orderId") Long orderId, @Param("sold") Instant sold);
+
+    /**
+     * Delete the accounts assigned to the items of the given orders.
+     *
+     * @param orderIds the IDs of the orders
+     * @return number of deleted accounts
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+        DELETE a FROM accounts a
+        JOIN order_items oi ON oi.id = a.order_item_id
+        WHERE oi.order_id IN (:orderIds)
+    """, nativeQuery = true)
+    int deleteByOrderIds(@Param("orderIds") Collection<Long> orderIds);
 
     Long id(Long id);
+
+    /**
+     * Check whether an account with the given fingerprint exists.
+     *
+     * @param fingerprint the account fingerprint
+     * @return true if a matching account exists
+     */
+    boolean existsByFingerprint(byte[] fingerprint);
+
+    /**
+     * Find which of the given fingerprints are already stored.
+     *
+     * @param fingerprints the fingerprints to look up
+     * @return the stored fingerprints
+     */
+    @Query("SELECT a.fingerprint FROM Account a WHERE a.fingerprint IN :fingerprints")
+    List<byte[]> findExistingFingerprints(@Param("fingerprints") Collection<byte[]> fingerprints);
+
+    /**
+     * Find which of the given fingerprints belong to accounts deleted by archiving.
+     *
+     * @param fingerprints the fingerprints to look up
+     * @return the archived fingerprints
+     */
+    @Query(value = "SELECT fingerprint FROM archived_fingerprints WHERE fingerprint IN (:fingerprints)", nativeQuery = true)
+    List<byte[]> findArchivedFingerprints(@Param("fingerprints") Collection<byte[]> fingerprints);
+
+    /**
+     * Get the archived fingerprints following the given one, in fingerprint order.
+     *
+     * @param last fingerprints greater than this one are returned
+     * @param limit maximum number of rows
+     * @return the archived fingerprints
+     */
+    @Query(value = "SELECT fingerprint FROM archived_fingerprints WHERE fingerprint > :last " +
+            "ORDER BY fingerprint LIMIT :limit", nativeQuery = true)
+    List<byte[]> findArchivedFingerprintsAfter(@Param("last") byte[] last, @Param("limit") int limit);
+
+    /**
+     * Keep the fingerprints of the accounts of the given orders before they are deleted by archiving.
+     * Accounts never backfilled get theirs computed the same way as {@link #backfillFingerprints}.
+     *
+     * @param orderIds the IDs of the orders being archived
+     * @return number of stored fingerprints
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+        INSERT IGNORE INTO archived_fingerprints (fingerprint)
+        SELECT COALESCE(a.fingerprint, UNHEX(LEFT(SHA2(CONCAT(a.product_id, CHAR(0), a.username), 256), 32)))
+        FROM accounts a
+        JOIN order_items oi ON oi.id = a.order_item_id
+        WHERE oi.order_id IN (:orderIds)
+    """, nativeQuery = true)
+    int archiveFingerprints(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * Get the fingerprints of the accounts following the given ID, in ID order.
+     *
+     * @param lastId IDs greater than this one are returned
+     * @param limit maximum number of rows
+     * @return rows of [id, fingerprint]
+     */
+    @Query(value = "SELECT id, fingerprint FROM accounts WHERE id > :lastId AND fingerprint IS NOT NULL " +
+            "ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Object[]> findFingerprintsAfter(@Param("lastId") long lastId, @Param("limit") int limit);
+
+    /**
+     * Get the highest account ID.
+     *
+     * @return the highest ID, or 0 when there are no accounts
+     */
+    @Query("SELECT COALESCE(MAX(a.id), 0) FROM Account a")
+    long findMaxId();
+
+    /**
+     * Compute missing fingerprints for an ID range.
+     * A row whose fingerprint is already taken by a lower ID is skipped by IGNORE and keeps NULL.
+     *
+     * @param fromId exclusive lower ID bound
+     * @param toId inclusive upper ID bound
+     * @return number of fingerprinted accounts
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+        UPDATE IGNORE accounts
+        SET fingerprint = UNHEX(LEFT(SHA2(CONCAT(product_id, CHAR(0), username), 256), 32))
+        WHERE id > :fromId AND id <= :toId
+        AND fingerprint IS NULL
+    """, nativeQuery = true)
+    int backfillFingerprints(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    /**
+     * Count the accounts without a fingerprint, i.e. duplicates left by the backfill.
+     *
+     * @return number of accounts
+     */
+    long countByFingerprintIsNull();
+
+    /**
+     * Get the {@code limit} accounts following the given ID, in ID order (keyset pagination).
+     *
+     * @param id the last ID of the previous page (0 for the first page)
+     * @param limit maximum number of rows
+     * @return the accounts
+     */
+    List<Account> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 }
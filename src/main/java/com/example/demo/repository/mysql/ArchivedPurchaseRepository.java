@@ -0,0 +1,102 @@
+package com.example.demo.repository.mysql;
+
+import com.example.demo.dto.response.PurchasedAccountDTO;
+import com.example.demo.model.entity.ArchivedPurchase;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ArchivedPurchaseRepository extends JpaRepository<ArchivedPurchase, Long> {
+
+    /**
+     * Copy the sold accounts of the given orders in one statement, before they are deleted.
+     *
+     * @param orderIds the IDs of the orders being archived
+     * @return number of inserted rows
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+        INSERT IGNORE INTO archived_purchases (account_id, user_id, product_id, product_name, platform,
+                                               username, password, sold, order_id, order_code)
+        SELECT a.id, o.user_id, p.id, p.name, p.platform, a.username, a.password, a.sold, o.id, o.order_code
+        FROM accounts a
+        JOIN order_items oi ON oi.id = a.order_item_id
+        JOIN orders o ON o.id = oi.order_id
+        JOIN products p ON p.id = a.product_id
+        WHERE o.id IN (:orderIds)
+        AND a.status = 'SOLD'
+    """, nativeQuery = true)
+    int archive(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * Get the first page of archived accounts bought by a user, most recently sold first.
+     *
+     * @param userId the ID of the user
+     * @param limit the maximum number of rows
+     * @return the purchased accounts
+     */
+    @Query("""
+        SELECT new com.example.demo.dto.response.PurchasedAccountDTO(
+            ap.accountId, ap.productId, ap.productName, ap.platform, ap.username, ap.password, ap.sold, ap.orderId, ap.orderCode)
+        FROM ArchivedPurchase ap
+        WHERE ap.userId = :userId
+        ORDER BY ap.sold DESC, ap.accountId DESC
+    """)
+    List<PurchasedAccountDTO> findFirstPage(@Param("userId") Long userId, Limit limit);
+
+    /**
+     * Get the page of archived accounts bought by a user following the given position, most recently sold first.
+     *
+     * @param userId the ID of the user
+     * @param sold the sold time of the last row of the previous page
+     * @param id the account ID of the last row of the previous page
+     * @param limit the maximum number of rows
+     * @return the purchased accounts
+     */
+    @Query("""
+        SELECT new com.example.demo.dto.response.PurchasedAccountDTO(
+            ap.accountId, ap.productId, ap.productName, ap.platform, ap.username, ap.password, ap.sold, ap.orderId, ap.orderCode)
+        FROM ArchivedPurchase ap
+        WHERE ap.userId = :userId
+        AND (ap.sold < :sold OR (ap.sold = :sold AND ap.accountId < :id))
+        ORDER BY ap.sold DESC, ap.accountId DESC
+    """)
+    List<PurchasedAccountDTO> findPageAfter(@Param("userId") Long userId, @Param("sold") Instant sold,
+                                            @Param("id") Long id, Limit limit);
+
+    /**
+     * Count the archived accounts bought by a user.
+     *
+     * @param userId the ID of the user
+     * @return number of purchased accounts
+     */
+    long countByUserId(Long userId);
+
+    /**
+     * Stream all archived accounts bought by a user, most recently sold first.
+     * Like {@link AccountRepository#streamPurchasedByUserId(Long)}, the stream must be consumed
+     * and closed inside a transaction.
+     *
+     * @param userId the ID of the user
+     * @return the purchased accounts
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("""
+        SELECT new com.example.demo.dto.response.PurchasedAccountDTO(
+            ap.accountId, ap.productId, ap.productName, ap.platform, ap.username, ap.password, ap.sold, ap.orderId, ap.orderCode)
+        FROM ArchivedPurchase ap
+        WHERE ap.userId = :userId
+        ORDER BY ap.sold DESC, ap.accountId DESC
+    """)
+    Stream<PurchasedAccountDTO> streamByUserId(@Param("userId") Long userId);
+}
@@ -1,10 +1,21 @@
 package com.example.demo.repository.mysql;
 
 import com.example.demo.model.entity.Category;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface CategoryRepository extends JpaRepository<Category,Long> {
     Optional<Category> findByName(String name);
+
+    /**
+     * Get the {@code limit} categories following the given ID, in ID order (keyset pagination).
+     *
+     * @param id the last ID of the previous page (0 for the first page)
+     * @param limit maximum number of rows
+     * @return the categories
+     */
+    List<Category> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 }
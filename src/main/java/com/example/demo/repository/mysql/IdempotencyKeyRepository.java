@@ -0,0 +1,57 @@
+package com.example.demo.repository.mysql;
+
+import com.example.demo.model.entity.IdempotencyKey;
+import com.example.demo.model.entity.IdempotencyKeyId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Repository interface for IdempotencyKey entity.
+ * A key row is inserted in the transaction that creates the order, so the primary key
+ * (user ID, key) decides which of several concurrent duplicates (on any node) runs.
+ */
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, IdempotencyKeyId> {
+
+    /**
+     * Insert a key without a response.
+     *
+     * @param key the idempotency key
+     * @param userId the user sending the request
+     * @param created the insert time
+     * @throws org.springframework.dao.DataIntegrityViolationException if the user already used the key
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (idem_key, user_id, created) VALUES (:key, :userId, :created)", nativeQuery = true)
+    void insertKey(@Param("key") String key, @Param("userId") Long userId, @Param("created") Instant created);
+
+    /**
+     * Store the response produced for a key.
+     *
+     * @param key the idempotency key
+     * @param userId the user sending the request
+     * @param orderId the created order ID
+     * @param response the response as JSON
+     * @return number of updated rows
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.orderId = :orderId, k.response = :response WHERE k.key = :key AND k.userId = :userId")
+    int completeKey(@Param("key") String key, @Param("userId") Long userId, @Param("orderId") Long orderId, @Param("response") String response);
+
+    /**
+     * Delete keys created before the given time.
+     *
+     * @param cutoff keys older than this are deleted
+     * @return number of deleted keys
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.created < :cutoff")
+    int deleteByCreatedBefore(@Param("cutoff") Instant cutoff);
+}
@@ -1,9 +1,19 @@
 package com.example.demo.repository.mysql;
 
 import com.example.demo.model.entity.Order;
+import com.example.demo.model.enums.OrderStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for Order entity.
@@ -25,5 +35,116 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      * @param status the order status (e.g., PENDING, PROCESSING, DELIVERED, CANCELLED)
      * @return list of orders with the specified status
      */
-    List<Order> findByStatus(String status);
+    List<Order> findByStatus(OrderStatus status);
+
+    /**
+     * Get the {@code limit} ids following the given ID of orders with a specific status (keyset pagination).
+     *
+     * @param status the order status
+     * @param id the last ID of the previous page (0 for the first page)
+     * @param limit maximum number of rows
+     * @return ids of the matching orders, oldest first
+     */
+    @Query("SELECT o.id FROM Order o WHERE o.status = :status AND o.id > :id ORDER BY o.id")
+    List<Long> findIdsByStatusAfter(@Param("status") OrderStatus status, @Param("id") Long id, Limit limit);
+
+    /**
+     * Sum the ordered quantities of an order per product.
+     *
+     * @param id the order ID
+     * @return rows of [product ID, quantity]
+     */
+    @Query("SELECT i.product.id, SUM(i.quantity) FROM OrderItem i WHERE i.order.id = :id GROUP BY i.product.id")
+    List<Object[]> sumQuantitiesByProduct(@Param("id") Long id);
+
+    /**
+     * Find an order and lock its row until the end of the transaction.
+     *
+     * @param id the ID of the order
+     * @return Optional containing the locked order if found
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Lock a batch of PENDING orders whose reservation deadline has passed.
+     * Walks the (status, reserved_until) index in deadline order, so each call reads at most
+     * {@code batchSize} index entries no matter how many reservations are open.
+     * Orders locked by a concurrent payment confirmation are skipped.
+     *
+     * @param now the current time
+     * @param batchSize maximum number of orders to return
+     * @return ids of the expired orders
+     */
+    @Query(value = """
+        SELECT o.id FROM orders o
+        WHERE o.status = 'PENDING'
+        AND o.reserved_until < :now
+        ORDER BY o.reserved_until
+        LIMIT :batchSize
+        FOR UPDATE SKIP LOCKED
+    """, nativeQuery = true)
+    List<Long> lockExpiredReservationIds(@Param("now") Instant now, @Param("batchSize") int batchSize);
+
+    /**
+     * Lock the given orders that are not CANCELLED yet.
+     *
+     * @param ids the IDs of the orders
+     * @return ids of the locked orders
+     */
+    @Query(value = """
+        SELECT o.id FROM orders o
+        WHERE o.id IN (:ids)
+        AND (o.status IS NULL OR o.status <> 'CANCELLED')
+        FOR UPDATE
+    """, nativeQuery = true)
+    List<Long> lockCancellableIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Set the status of several orders at once and clear their reservation deadline.
+     *
+     * @param ids the IDs of the orders
+     * @param status the new status
+     * @param updated the update time
+     * @return number of updated orders
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :status, o.reservedUntil = NULL, o.updated = :updated WHERE o.id IN :ids")
+    int updateStatusByIds(@Param("ids") Collection<Long> ids, @Param("status") OrderStatus status, @Param("updated") Instant updated);
+
+    /**
+     * Get the {@code limit} orders following the given ID, in ID order (keyset pagination).
+     *
+     * @param id the last ID of the previous page (0 for the first page)
+     * @param limit maximum number of rows
+     * @return the orders
+     */
+    List<Order> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Find COMPLETED orders created before the cutoff, oldest first.
+     *
+     * @param cutoff only orders created before this time
+     * @param limit maximum number of orders
+     * @return the order IDs
+     */
+    @Query(value = """
+        SELECT o.id FROM orders o
+        WHERE o.status = 'COMPLETED'
+        AND o.created < :cutoff
+        ORDER BY o.id
+        LIMIT :limit
+    """, nativeQuery = true)
+    List<Long> findArchivableIds(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+
+    /**
+     * Delete orders by ID in one statement; their items are removed by the foreign key cascade.
+     *
+     * @param ids the IDs of the orders
+     * @return number of deleted orders
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM orders WHERE id IN (:ids)", nativeQuery = true)
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
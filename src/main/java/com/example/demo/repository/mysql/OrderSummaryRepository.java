@@ -0,0 +1,81 @@
+package com.example.demo.repository.mysql;
+
+import com.example.demo.model.entity.OrderSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface OrderSummaryRepository extends JpaRepository<OrderSummary, Long> {
+
+    /**
+     * Rebuild the summaries of the given orders from the order tables in one statement.
+     *
+     * @param orderIds the IDs of the orders
+     * @return number of affected rows
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+        INSERT INTO order_summaries (order_id, user_id, order_code, status, total_amount, item_count, product_names, created, updated)
+        SELECT * FROM (
+            SELECT o.id, o.user_id, o.order_code, o.status, o.total_amount,
+                   COALESCE(SUM(oi.quantity), 0) AS item_count,
+                   SUBSTRING(GROUP_CONCAT(DISTINCT p.name ORDER BY p.name SEPARATOR ', '), 1, 1000) AS product_names,
+                   o.created, o.updated
+            FROM orders o
+            LEFT JOIN order_items oi ON oi.order_id = o.id
+            LEFT JOIN products p ON p.id = oi.product_id
+            WHERE o.id IN (:orderIds)
+            GROUP BY o.id
+        ) AS s
+        ON DUPLICATE KEY UPDATE status = s.status, total_amount = s.total_amount, item_count = s.item_count,
+            product_names = s.product_names, updated = s.updated
+    """, nativeQuery = true)
+    int refresh(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * Get the first page of a user's orders, newest first.
+     *
+     * @param userId the ID of the user
+     * @param limit maximum number of rows
+     * @return the summaries
+     */
+    @Query(value = """
+        SELECT * FROM order_summaries
+        WHERE user_id = :userId
+        ORDER BY created DESC, order_id DESC
+        LIMIT :limit
+    """, nativeQuery = true)
+    List<OrderSummary> findFirstPage(@Param("userId") Long userId, @Param("limit") int limit);
+
+    /**
+     * Get the page of a user's orders following the given position, newest first.
+     *
+     * @param userId the ID of the user
+     * @param created creation time of the last row of the previous page
+     * @param orderId order ID of the last row of the previous page
+     * @param limit maximum number of rows
+     * @return the summaries
+     */
+    @Query(value = """
+        SELECT * FROM order_summaries
+        WHERE user_id = :userId
+        AND (created < :created OR (created = :created AND order_id < :orderId))
+        ORDER BY created DESC, order_id DESC
+        LIMIT :limit
+    """, nativeQuery = true)
+    List<OrderSummary> findPageAfter(@Param("userId") Long userId, @Param("created") Instant created,
+                                     @Param("orderId") Long orderId, @Param("limit") int limit);
+
+    /**
+     * Count the orders of a user.
+     *
+     * @param userId the ID of the user
+     * @return number of orders
+     */
+    long countByUserId(Long userId);
+}
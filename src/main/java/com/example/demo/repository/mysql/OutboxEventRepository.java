@@ -0,0 +1,92 @@
+package com.example.demo.repository.mysql;
+
+import com.example.demo.model.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Lock the next unsent events that are due, oldest first.
+     * Events locked by another dispatcher are skipped.
+     *
+     * @param now the current time
+     * @param limit maximum number of events
+     * @return the locked events
+     */
+    @Query(value = """
+        SELECT * FROM outbox_events
+        WHERE sent IS NULL
+        AND (next_attempt IS NULL OR next_attempt <= :now)
+        ORDER BY id
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+    """, nativeQuery = true)
+    List<OutboxEvent> lockPending(@Param("now") Instant now, @Param("limit") int limit);
+
+    /**
+     * Mark events as published.
+     *
+     * @param ids the IDs of the events
+     * @param sent the publish time
+     * @return number of updated events
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.sent = :sent, e.lastError = NULL WHERE e.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sent") Instant sent);
+
+    /**
+     * Record a failed publish and schedule the retry with exponential backoff per event.
+     *
+     * @param ids the IDs of the events
+     * @param now the current time
+     * @param error the failure message
+     * @param baseMs the delay after the first failure
+     * @param maxMs the maximum delay
+     * @return number of updated events
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE outbox_events
+        SET next_attempt = DATE_ADD(:now, INTERVAL LEAST(:maxMs, :baseMs * POW(2, attempts)) * 1000 MICROSECOND),
+            attempts = attempts + 1,
+            last_error = :error
+        WHERE id IN (:ids)
+    """, nativeQuery = true)
+    int markFailed(@Param("ids") Collection<Long> ids, @Param("now") Instant now, @Param("error") String error,
+                   @Param("baseMs") long baseMs, @Param("maxMs") long maxMs);
+
+    /**
+     * Get the creation time of the oldest unsent event.
+     *
+     * @return the creation time, or null if nothing is pending
+     */
+    @Query("SELECT MIN(e.created) FROM OutboxEvent e WHERE e.sent IS NULL")
+    Instant findOldestPendingCreated();
+
+    /**
+     * Count unsent events.
+     *
+     * @return number of pending events
+     */
+    long countBySentIsNull();
+
+    /**
+     * Delete one batch of events published before the cutoff.
+     *
+     * @param cutoff only events sent before this time
+     * @param limit maximum number of events
+     * @return number of deleted events
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM outbox_events WHERE sent < :cutoff ORDER BY id LIMIT :limit", nativeQuery = true)
+    int deleteSentBefore(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+}
@@ -1,8 +1,93 @@
 package com.example.demo.repository.mysql;
 
 import com.example.demo.model.entity.Product;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
 
 
 public interface ProductRepository extends JpaRepository<Product,Long> {
+
+    /**
+     * Atomically add {@code delta} to the stock of a product.
+     *
+     * @param id the ID of the product
+     * @param delta amount to add (negative to deduct)
+     * @return number of updated rows
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Product p SET p.stock = p.stock + :delta WHERE p.id = :id")
+    int adjustStock(@Param("id") Long id, @Param("delta") int delta);
+
+    /**
+     * Get a chunk of product IDs in ascending order.
+     *
+     * @param lastId IDs greater than this one are returned
+     * @param limit maximum number of IDs
+     * @return the product IDs
+     */
+    @Query(value = "SELECT id FROM products WHERE id > :lastId ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Long> findIdsAfter(@Param("lastId") long lastId, @Param("limit") int limit);
+
+    /**
+     * Find products in an ID range whose stock differs from their AVAILABLE account count.
+     *
+     * @return rows of [product ID, stored stock, actual count]
+     */
+    @Query(value = "SELECT p.id, p.stock, COALESCE(a.cnt, 0) FROM products p " +
+            "LEFT JOIN (SELECT product_id, COUNT(*) AS cnt FROM accounts " +
+            "WHERE status = 'AVAILABLE' AND product_id BETWEEN :fromId AND :toId GROUP BY product_id) a " +
+            "ON a.product_id = p.id " +
+            "WHERE p.id BETWEEN :fromId AND :toId AND NOT (p.stock <=> COALESCE(a.cnt, 0))", nativeQuery = true)
+    List<Object[]> findStockDrift(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    /**
+     * Recount the AVAILABLE accounts of the products in an ID range and overwrite drifting stock.
+     *
+     * @return number of repaired products
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE products p " +
+            "LEFT JOIN (SELECT product_id, COUNT(*) AS cnt FROM accounts " +
+            "WHERE status = 'AVAILABLE' AND product_id BETWEEN :fromId AND :toId GROUP BY product_id) a " +
+            "ON a.product_id = p.id " +
+            "SET p.stock = COALESCE(a.cnt, 0) " +
+            "WHERE p.id BETWEEN :fromId AND :toId AND NOT (p.stock <=> COALESCE(a.cnt, 0))", nativeQuery = true)
+    int repairStock(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    /**
+     * Get the {@code limit} products following the given ID, in ID order (keyset pagination).
+     *
+     * @param id the last ID of the previous page (0 for the first page)
+     * @param limit maximum number of rows
+     * @return the products
+     */
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Load products together with their categories in one query.
+     *
+     * @param ids the IDs of the products
+     * @return the products found
+     */
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.id IN :ids")
+    List<Product> findAllWithCategoryByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Get a page of product IDs.
+     *
+     * @param pageable pagination information
+     * @return page of product IDs
+     */
+    @Query(value = "SELECT p.id FROM Product p", countQuery = "SELECT COUNT(p) FROM Product p")
+    Page<Long> findAllIds(Pageable pageable);
 }
@@ -0,0 +1,11 @@
+package com.example.demo.repository.mysql;
+
+import com.example.demo.model.entity.StockWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Repository interface for StockWatermark entity.
+ * The table is small and read once at startup.
+ */
+public interface StockWatermarkRepository extends JpaRepository<StockWatermark, Long> {
+}
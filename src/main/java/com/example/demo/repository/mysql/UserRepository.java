@@ -1,11 +1,22 @@
 package com.example.demo.repository.mysql;
 
 import com.example.demo.model.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
 import java.util.Optional;
 
 
 public interface UserRepository extends JpaRepository<User,Long> {
     Optional<User> findByEmail(String email);
+
+    /**
+     * Get the {@code limit} users following the given ID, in ID order (keyset pagination).
+     *
+     * @param id the last ID of the previous page (0 for the first page)
+     * @param limit maximum number of rows
+     * @return the users
+     */
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 }
@@ -0,0 +1,31 @@
+package com.example.demo.scheduler;
+
+import com.example.demo.service.IdempotencyService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically deletes idempotency keys older than their TTL.
+ */
+@Slf4j
+@Component
+public class IdempotencyKeyPurgeScheduler {
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:3600000}",
+            initialDelayString = "${app.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpiredKeys() {
+        try {
+            int purged = idempotencyService.purgeExpiredKeys();
+            if (purged > 0) {
+                log.info("Purged {} expired idempotency keys", purged);
+            }
+        } catch (Exception e) {
+            log.warn("Idempotency key purge failed: {}", e.getMessage());
+        }
+    }
+}
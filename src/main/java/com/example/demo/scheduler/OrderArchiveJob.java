@@ -0,0 +1,38 @@
+package com.example.demo.scheduler;
+
+import com.example.demo.service.OrderArchiveService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically moves old COMPLETED orders from MySQL to the order archive.
+ */
+@Slf4j
+@Component
+public class OrderArchiveJob {
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Value("${app.archive.enabled:false}")
+    private boolean enabled;
+
+    @Scheduled(fixedDelayString = "${app.archive.interval-ms:3600000}",
+            initialDelayString = "${app.archive.interval-ms:3600000}")
+    public void scheduledArchive() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int archived = orderArchiveService.archive();
+            if (archived > 0) {
+                log.info("Archived {} orders", archived);
+            }
+        } catch (Exception e) {
+            log.warn("Order archival run failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.demo.scheduler;
+
+import com.example.demo.service.OutboxService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Relays outbox events to the sinks in batches, each in its own transaction.
+ * A run stops at the first failed or partial batch; failed events wait for their backoff.
+ */
+@Slf4j
+@Component
+public class OutboxDispatcher {
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Value("${app.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.outbox.max-batches-per-run:50}")
+    private int maxBatchesPerRun;
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:1000}",
+            initialDelayString = "${app.outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                OutboxService.DispatchResult result = outboxService.dispatchBatch(batchSize);
+                if (result.isFailed() || result.getPublished() < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Outbox dispatch failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.purge-interval-ms:3600000}",
+            initialDelayString = "${app.outbox.purge-interval-ms:3600000}")
+    public void purge() {
+        try {
+            int deleted = outboxService.purgeSent(batchSize * 10);
+            if (deleted > 0) {
+                log.info("Purged {} sent outbox events", deleted);
+            }
+        } catch (Exception e) {
+            log.warn("Outbox purge failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.demo.scheduler;
+
+import com.example.demo.service.ReservationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically returns expired reservations to AVAILABLE.
+ * Each run expires at most {@code max-batches-per-run} batches, each in its own transaction,
+ * so a backlog of expired holds is drained over several runs with bounded DB load.
+ */
+@Slf4j
+@Component
+public class ReservationExpiryScheduler {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Value("${app.reservation.expiry-batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.reservation.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Scheduled(fixedDelayString = "${app.reservation.expiry-interval-ms:30000}")
+    public void expireReservations() {
+        try {
+            int total = 0;
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                int expired = reservationService.expireReservations(batchSize);
+                total += expired;
+                if (expired < batchSize) {
+                    break;
+                }
+            }
+            if (total > 0) {
+                log.info("Expired {} pending order reservations", total);
+            }
+        } catch (Exception e) {
+            log.warn("Reservation expiry run failed: {}", e.getMessage());
+        }
+    }
+}
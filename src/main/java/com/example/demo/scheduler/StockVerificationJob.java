@@ -0,0 +1,39 @@
+package com.example.demo.scheduler;
+
+import com.example.demo.service.StockService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically recounts product stock from the accounts table and repairs drift.
+ */
+@Slf4j
+@Component
+public class StockVerificationJob {
+
+    @Autowired
+    private StockService stockService;
+
+    @Value("${app.inventory.stock-verify-chunk-size:1000}")
+    private int chunkSize;
+
+    @Scheduled(fixedDelayString = "${app.inventory.stock-verify-interval-ms:3600000}",
+            initialDelayString = "${app.inventory.stock-verify-interval-ms:3600000}")
+    public void verifyStock() {
+        try {
+            int repaired = stockService.verifyStock(chunkSize).size();
+            if (repaired > 0) {
+                log.info("Repaired stock of {} products", repaired);
+            }
+        } catch (Exception e) {
+            log.warn("Stock verification failed: {}", e.getMessage());
+        }
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+}
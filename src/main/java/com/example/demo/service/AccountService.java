@@ -2,11 +2,16 @@ package com.example.demo.service;
 
 import com.example.demo.dto.request.AccountRequestDTO;
 import com.example.demo.dto.response.AccountResponseDTO;
+import com.example.demo.dto.response.CursorPageResponseDTO;
+import com.example.demo.dto.response.PurchasedAccountDTO;
 import com.example.demo.model.entity.Account;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Service interface for Account entity operations.
@@ -15,6 +20,25 @@ import java.util.List;
 public interface AccountService {
     
     AccountResponseDTO createAccount(AccountRequestDTO dto);
+
+    /**
+     * Insert a chunk of validated accounts with one JDBC batch in a single transaction
+     * and add the AVAILABLE ones to product stock.
+     * Accounts whose product and username are already stored, or repeated within the chunk, are skipped.
+     *
+     * @param accounts accounts whose products are known to exist
+     * @return positions in {@code accounts} skipped as duplicates
+     */
+    List<Integer> importAccounts(List<AccountRequestDTO> accounts);
+
+    /**
+     * Compute missing account fingerprints in ID-range chunks, each in its own transaction,
+     * then reload the fingerprint filter.
+     *
+     * @param chunkSize number of IDs per chunk
+     * @return fingerprinted accounts and remaining duplicates (accounts left without a fingerprint)
+     */
+    Map<String, Long> backfillFingerprints(int chunkSize);
     
     /**
      * Get an account by its ID.
@@ -33,9 +57,40 @@ public interface AccountService {
      */
     Page<Account> getAllAccounts(Pageable pageable);
 
+    /**
+     * Get accounts with keyset pagination in ID order.
+     *
+     * @param cursor the cursor of the previous page, or null for the first page
+     * @param size the requested page size
+     * @param withTotal whether to count all accounts
+     * @return page of account entities
+     */
+    CursorPageResponseDTO<Account> scrollAccounts(String cursor, Integer size, boolean withTotal);
+
 
 
     List<Account> findSoldAccountsByUserId( Long userId);
+
+    /**
+     * Get the accounts bought by a user, most recently sold first, with keyset pagination.
+     * Accounts of archived orders are merged in by the same (sold, id) order.
+     *
+     * @param userId the user ID
+     * @param cursor the cursor of the previous page, or null for the first page
+     * @param size the requested page size
+     * @param withTotal whether to count all purchased accounts
+     * @return page of purchased accounts
+     */
+    CursorPageResponseDTO<PurchasedAccountDTO> getPurchasedAccounts(Long userId, String cursor, Integer size, boolean withTotal);
+
+    /**
+     * Pass every account bought by a user to a consumer, most recently sold first, without
+     * holding the whole history in memory. Accounts of archived orders follow those of live orders.
+     *
+     * @param userId the user ID
+     * @param consumer receives each purchased account
+     */
+    void streamPurchasedAccounts(Long userId, Consumer<PurchasedAccountDTO> consumer);
     /**
      * Get all accounts for a specific product.
      * 
@@ -51,6 +106,23 @@ public interface AccountService {
      * @return list of available account entities
      */
     List<Account> getAvailableAccountsByProduct(Long productId);
+
+    /**
+     * Count the AVAILABLE accounts of several products with one grouped query.
+     * Counts are cached briefly and dropped when the stock of a product changes.
+     *
+     * @param productIds the product IDs
+     * @return available count per product, 0 for unknown products
+     */
+    Map<Long, Long> countAvailableAccounts(Collection<Long> productIds);
+
+    /**
+     * Check whether a product has any AVAILABLE account.
+     *
+     * @param productId the product ID
+     * @return true if at least one account is available
+     */
+    boolean isInStock(Long productId);
     
     AccountResponseDTO updateAccount(Long id, AccountRequestDTO dto);
     
@@ -2,6 +2,7 @@ package com.example.demo.service;
 
 import com.example.demo.dto.request.CategoryRequestDTO;
 import com.example.demo.dto.response.CategoryResponseDTO;
+import com.example.demo.dto.response.CursorPageResponseDTO;
 import com.example.demo.model.entity.Category;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -32,6 +33,16 @@ public interface CategoryService {
      * @return page of category entities
      */
     Page<Category> getAllCategories(Pageable pageable);
+
+    /**
+     * Get categories with keyset pagination in ID order.
+     *
+     * @param cursor the cursor of the previous page, or null for the first page
+     * @param size the requested page size
+     * @param withTotal whether to count all categories
+     * @return page of category entities
+     */
+    CursorPageResponseDTO<Category> scrollCategories(String cursor, Integer size, boolean withTotal);
     
     CategoryResponseDTO updateCategory(Long id, CategoryRequestDTO dto);
     
@@ -0,0 +1,44 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.response.OrderResponseDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.function.Supplier;
+
+/**
+ * Service interface for idempotent order creation.
+ * A request carrying an Idempotency-Key that was already seen gets the stored response back
+ * instead of creating another order.
+ */
+public interface IdempotencyService {
+
+    /**
+     * Create an order at most once per user and key.
+     * The key is stored in the transaction that creates the order, so a request that fails
+     * or never commits leaves the key free for a retry.
+     * Concurrent duplicates wait for the first request and receive its result.
+     *
+     * @param key the Idempotency-Key header value
+     * @param userId the user placing the order
+     * @param createOrder creates the order when the key is new
+     * @return the response and whether it was replayed
+     * @throws com.example.demo.exception.ConflictException if the first request is still running
+     *         after the wait timeout
+     */
+    IdempotentResult createOrderOnce(String key, Long userId, Supplier<OrderResponseDTO> createOrder);
+
+    /**
+     * Delete stored keys older than the configured TTL.
+     *
+     * @return number of deleted keys
+     */
+    int purgeExpiredKeys();
+
+    @Getter
+    @AllArgsConstructor
+    class IdempotentResult {
+        private final OrderResponseDTO response;
+        private final boolean replayed;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.response.AccountResponseDTO;
+import com.example.demo.dto.response.OrderResponseDTO;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service interface for archiving old completed orders to cold storage.
+ * Archived orders, their items and sold accounts are removed from MySQL and stay readable
+ * through the archive; their order summaries and purchased accounts stay in MySQL read models
+ * so order history and purchases still list them.
+ */
+public interface OrderArchiveService {
+
+    /**
+     * Move up to {@code max-batches-per-run} batches of COMPLETED orders older than the
+     * configured age from MySQL to the archive.
+     *
+     * @return number of orders moved out of MySQL
+     */
+    int archive();
+
+    /**
+     * Get the number of archived orders.
+     *
+     * @return the archive size
+     */
+    int archiveSize();
+
+    /**
+     * Find an archived order.
+     *
+     * @param id the order ID
+     * @return the order with its items and accounts, or empty if it is not archived
+     */
+    Optional<OrderResponseDTO> findArchivedOrder(Long id);
+
+    /**
+     * Find the accounts sold to a user in archived orders.
+     *
+     * @param userId the user ID
+     * @return the archived sold accounts
+     */
+    List<AccountResponseDTO> findArchivedSoldAccounts(Long userId);
+}
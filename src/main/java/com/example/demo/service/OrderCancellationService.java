@@ -0,0 +1,33 @@
+package com.example.demo.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collection;
+
+/**
+ * Service interface for cancelling and refunding orders.
+ * Cancelling returns every account held by the orders, RESERVED or SOLD, to AVAILABLE
+ * and restores stock with set-based statements.
+ */
+public interface OrderCancellationService {
+
+    /**
+     * Cancel one chunk of orders in a single transaction.
+     * Orders that are already CANCELLED or do not exist are skipped.
+     *
+     * @param orderIds the IDs of the orders
+     * @return number of cancelled orders and released accounts
+     */
+    CancellationResult cancelOrders(Collection<Long> orderIds);
+
+    /**
+     * Outcome of a cancellation chunk.
+     */
+    @Getter
+    @AllArgsConstructor
+    class CancellationResult {
+        private final int cancelledOrders;
+        private final int releasedAccounts;
+    }
+}
@@ -1,8 +1,10 @@
 package com.example.demo.service;
 
 import com.example.demo.dto.request.OrderRequestDTO;
+import com.example.demo.dto.response.CursorPageResponseDTO;
 import com.example.demo.dto.response.OrderResponseDTO;
 import com.example.demo.model.entity.Order;
+import com.example.demo.model.enums.OrderStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -14,7 +16,33 @@ import java.util.List;
  */
 public interface OrderService {
     
+    /**
+     * Create a PENDING order and reserve its accounts until the reservation deadline.
+     *
+     * @param dto order data with items
+     * @return the created order
+     * @throws IllegalArgumentException if a product does not have enough available accounts
+     */
     OrderResponseDTO createOrder(OrderRequestDTO dto);
+
+    /**
+     * Persist an order intent in PROCESSING state without claiming accounts.
+     * The intent is completed later by {@link #fulfillOrder(Long)}.
+     *
+     * @param dto order data with items
+     * @return the created order intent
+     */
+    OrderResponseDTO createOrderIntent(OrderRequestDTO dto);
+
+    /**
+     * Claim and reserve the accounts of a PROCESSING order intent; the order becomes PENDING.
+     * Orders in any other state are returned unchanged.
+     *
+     * @param id the order ID
+     * @return the fulfilled order
+     * @throws IllegalArgumentException if a product does not have enough available accounts
+     */
+    OrderResponseDTO fulfillOrder(Long id);
     
     /**
      * Get an order by its ID.
@@ -34,18 +62,21 @@ public interface OrderService {
      * @return page of order entities
      */
     Page<Order> getAllOrders(Pageable pageable);
-    
+
     /**
-     * Get all orders for a specific user.
-     * 
-     * @param userId the user ID
-     * @return list of order entities for the user
+     * Get orders with keyset pagination in ID order.
+     *
+     * @param cursor the cursor of the previous page, or null for the first page
+     * @param size the requested page size
+     * @param withTotal whether to count all orders
+     * @return page of order entities
      */
-    List<Order> getUserOrders(Long userId);
+    CursorPageResponseDTO<Order> scrollOrders(String cursor, Integer size, boolean withTotal);
     
     /**
      * Update order status.
-     * Valid transitions: PENDING -> PROCESSING -> DELIVERED / CANCELLED
+     * Completing a PENDING order sells its reserved accounts. Cancelling any order returns its
+     * reserved or sold accounts to AVAILABLE and restores stock.
      * 
      * @param id the order ID
      * @param status the new status
@@ -53,7 +84,7 @@ public interface OrderService {
      * @throws com.example.demo.exception.ResourceNotFoundException if order not found
      */
 
-    Order updateOrderStatus(Long id, String status);
+    Order updateOrderStatus(Long id, OrderStatus status);
 
 
 
@@ -61,6 +92,7 @@ public interface OrderService {
     
     /**
      * Delete an order.
+     * Accounts still held by the order are returned to inventory first.
      * 
      * @param id the order ID
      * @throws com.example.demo.exception.ResourceNotFoundException if order not found
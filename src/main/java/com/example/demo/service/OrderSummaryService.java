@@ -0,0 +1,38 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.response.CursorPageResponseDTO;
+import com.example.demo.dto.response.OrderSummaryResponseDTO;
+
+import java.util.Collection;
+
+/**
+ * Service interface for the order history read model.
+ * Summaries are refreshed in the transaction that changes the orders and listed with keyset pagination.
+ */
+public interface OrderSummaryService {
+
+    /**
+     * Rebuild the summaries of the given orders from their current state.
+     *
+     * @param orderIds the IDs of the orders
+     */
+    void refresh(Collection<Long> orderIds);
+
+    /**
+     * Delete the summaries of deleted orders. Archived orders keep their summaries.
+     *
+     * @param orderIds the IDs of the orders
+     */
+    void delete(Collection<Long> orderIds);
+
+    /**
+     * Get a page of a user's orders, newest first.
+     *
+     * @param userId the user ID
+     * @param cursor the cursor of the previous page, or null for the first page
+     * @param size the requested page size
+     * @param withTotal whether to count all orders of the user
+     * @return the page of order summaries
+     */
+    CursorPageResponseDTO<OrderSummaryResponseDTO> getUserOrders(Long userId, String cursor, Integer size, boolean withTotal);
+}
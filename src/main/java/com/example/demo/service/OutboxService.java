@@ -0,0 +1,68 @@
+package com.example.demo.service;
+
+import com.example.demo.model.entity.Order;
+import com.example.demo.model.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * Service interface for the transactional outbox of order events.
+ * Events are written in the transaction that changes the order and published to the
+ * configured sinks by a background dispatcher.
+ */
+public interface OutboxService {
+
+    /**
+     * Record an order event in the caller's transaction. Costs a single INSERT.
+     *
+     * @param eventType the event type, e.g. ORDER_CREATED
+     * @param order the order after the change
+     * @param previousStatus the status before the change, or null
+     */
+    void recordOrderEvent(String eventType, Order order, OrderStatus previousStatus);
+
+    /**
+     * Record the same event for several orders changed by one bulk statement, in the caller's transaction.
+     * The orders are read in one query; each event costs a single INSERT.
+     *
+     * @param eventType the event type, e.g. ORDER_CANCELLED
+     * @param previousStatuses the status of each order before the change, by order ID
+     */
+    void recordOrderEvents(String eventType, Map<Long, OrderStatus> previousStatuses);
+
+    /**
+     * Publish one batch of due events to every sink and mark them sent.
+     * When a sink fails the batch is scheduled for retry with exponential backoff.
+     *
+     * @param batchSize maximum number of events
+     * @return the outcome of the batch
+     */
+    DispatchResult dispatchBatch(int batchSize);
+
+    /**
+     * Delete events sent longer ago than the configured retention.
+     *
+     * @param batchSize maximum number of events per statement
+     * @return number of deleted events
+     */
+    int purgeSent(int batchSize);
+
+    /**
+     * Get dispatcher throughput and lag metrics.
+     *
+     * @return map of metric name to value
+     */
+    Map<String, Object> metrics();
+
+    /**
+     * Outcome of a dispatch batch.
+     */
+    @Getter
+    @AllArgsConstructor
+    class DispatchResult {
+        private final int published;
+        private final boolean failed;
+    }
+}
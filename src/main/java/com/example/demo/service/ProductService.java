@@ -1,6 +1,7 @@
 package com.example.demo.service;
 
 import com.example.demo.dto.request.ProductRequestDTO;
+import com.example.demo.dto.response.CursorPageResponseDTO;
 import com.example.demo.dto.response.ProductResponseDTO;
 import com.example.demo.model.entity.Product;
 import org.springframework.data.domain.Page;
@@ -30,6 +31,45 @@ public interface ProductService {
      * @return page of product entities
      */
     Page<Product> getAllProducts(Pageable pageable);
+
+    /**
+     * Get products with keyset pagination in ID order.
+     *
+     * @param cursor the cursor of the previous page, or null for the first page
+     * @param size the requested page size
+     * @param withTotal whether to count all products
+     * @return page of product entities
+     */
+    CursorPageResponseDTO<Product> scrollProducts(String cursor, Integer size, boolean withTotal);
+
+    /**
+     * Get a mapped product for the public catalog, from the product cache when possible.
+     *
+     * @param id the product ID
+     * @return the product
+     * @throws com.example.demo.exception.ResourceNotFoundException if product not found
+     */
+    ProductResponseDTO getProductResponse(Long id);
+
+    /**
+     * Get a page of mapped products. Only the IDs of the page are queried; products missing
+     * from the cache are loaded together in one query.
+     *
+     * @param pageable pagination information
+     * @return page of products
+     */
+    Page<ProductResponseDTO> getProductResponses(Pageable pageable);
+
+    /**
+     * Get mapped products with keyset pagination in ID order, loading them like
+     * {@link #getProductResponses(Pageable)}.
+     *
+     * @param cursor the cursor of the previous page, or null for the first page
+     * @param size the requested page size
+     * @param withTotal whether to count all products
+     * @return page of products
+     */
+    CursorPageResponseDTO<ProductResponseDTO> scrollProductResponses(String cursor, Integer size, boolean withTotal);
     
     ProductResponseDTO updateProduct(Long id, ProductRequestDTO dto);
     
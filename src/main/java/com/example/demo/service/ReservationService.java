@@ -0,0 +1,47 @@
+package com.example.demo.service;
+
+import com.example.demo.model.entity.Order;
+import com.example.demo.model.enums.OrderStatus;
+
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Service interface for account reservations.
+ * A PENDING order holds its accounts in RESERVED state until it is paid, cancelled or expires.
+ */
+public interface ReservationService {
+
+    /**
+     * Get the deadline for a reservation starting now.
+     *
+     * @return the time after which a new reservation expires
+     */
+    Instant newReservationDeadline();
+
+    /**
+     * Confirm payment of a PENDING order: its RESERVED accounts become SOLD.
+     *
+     * @param order the pending order, locked by the caller
+     * @throws IllegalStateException if the reservation has already expired
+     */
+    void confirmReservation(Order order);
+
+    /**
+     * Return the RESERVED accounts of the given orders to AVAILABLE, restore stock
+     * and move the orders to the given status.
+     *
+     * @param orderIds the IDs of the orders
+     * @param status the new order status
+     * @return number of released accounts
+     */
+    int releaseReservations(Collection<Long> orderIds, OrderStatus status);
+
+    /**
+     * Release one batch of expired reservations.
+     *
+     * @param batchSize maximum number of orders to expire
+     * @return number of expired orders
+     */
+    int expireReservations(int batchSize);
+}
@@ -0,0 +1,37 @@
+package com.example.demo.service;
+
+import java.util.Map;
+
+/**
+ * Service interface for the product stock counter.
+ * {@code products.stock} is a materialized count of AVAILABLE accounts, maintained with atomic
+ * delta updates in the same transaction as every account status change.
+ */
+public interface StockService {
+
+    /**
+     * Apply a change in AVAILABLE accounts to the stock counter and, after commit, to the inventory ledger
+     * and any running flash sale.
+     *
+     * @param productId the product ID
+     * @param delta accounts that became available (negative when they left AVAILABLE)
+     */
+    void adjust(Long productId, int delta);
+
+    /**
+     * Deduct accounts that were claimed through the inventory ledger, which already holds the deduction.
+     *
+     * @param productId the product ID
+     * @param quantity number of claimed accounts
+     */
+    void deductClaimed(Long productId, int quantity);
+
+    /**
+     * Recompute the stock of every product from the accounts table, chunk by chunk,
+     * and repair the counters that drifted.
+     *
+     * @param chunkSize number of products per chunk
+     * @return drifting products mapped to [stored stock, actual available count]
+     */
+    Map<Long, long[]> verifyStock(int chunkSize);
+}
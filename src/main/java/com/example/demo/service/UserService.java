@@ -1,6 +1,7 @@
 package com.example.demo.service;
 
 import com.example.demo.dto.request.UserRequestDTO;
+import com.example.demo.dto.response.CursorPageResponseDTO;
 import com.example.demo.dto.response.UserResponseDTO;
 import com.example.demo.model.entity.User;
 import com.example.demo.model.entity.UserLoginDTO;
@@ -33,6 +34,16 @@ public interface UserService {
      * @return page of user entities
      */
     Page<User> getAllUsers(Pageable pageable);
+
+    /**
+     * Get users with keyset pagination in ID order.
+     *
+     * @param cursor the cursor of the previous page, or null for the first page
+     * @param size the requested page size
+     * @param withTotal whether to count all users
+     * @return page of user entities
+     */
+    CursorPageResponseDTO<User> scrollUsers(String cursor, Integer size, boolean withTotal);
     
     UserResponseDTO updateUser(Long id, UserRequestDTO dto);
     
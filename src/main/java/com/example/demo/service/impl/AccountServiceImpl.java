@@ -1,24 +1,48 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.component.AccountFingerprintIndex;
+import com.example.demo.component.AvailabilityCache;
+import com.example.demo.component.CursorPagination;
 import com.example.demo.dto.request.AccountRequestDTO;
 import com.example.demo.dto.response.AccountResponseDTO;
+import com.example.demo.dto.response.CursorPageResponseDTO;
+import com.example.demo.dto.response.PurchasedAccountDTO;
+import com.example.demo.exception.ConflictException;
 import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.model.entity.Account;
 import com.example.demo.model.entity.Product;
+import com.example.demo.model.enums.AccountStatus;
 import com.example.demo.repository.mysql.AccountRepository;
+import com.example.demo.repository.mysql.ArchivedPurchaseRepository;
 import com.example.demo.repository.mysql.ProductRepository;
 import com.example.demo.service.AccountService;
+import com.example.demo.service.StockService;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
 import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementation of AccountService.
@@ -35,22 +59,130 @@ public class AccountServiceImpl implements AccountService {
     @Autowired
     private ModelMapper modelMapper;
 
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private CursorPagination cursorPagination;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AccountFingerprintIndex fingerprintIndex;
+
+    @Autowired
+    private AvailabilityCache availabilityCache;
+
+    @Autowired
+    private ArchivedPurchaseRepository archivedPurchaseRepository;
+
     @Override
     @Transactional
     public AccountResponseDTO createAccount(AccountRequestDTO dto) {
         Product product = productRepository.findById(dto.getProductId())
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + dto.getProductId()));
         
+        byte[] fingerprint = AccountFingerprintIndex.fingerprint(product.getId(), dto.getUsername());
+        if (fingerprintIndex.mightContain(fingerprint) && isStoredFingerprint(fingerprint)) {
+            throw new ConflictException("Account already exists for product id: " + product.getId());
+        }
+
         Account account = modelMapper.map(dto, Account.class);
         account.setProduct(product);
-//        account.setStatus(dto.getStatus() != null ? dto.getStatus() : "AVAILABLE");
-        account.setStatus("SOLD");
+        account.setFingerprint(fingerprint);
+        account.setStatus(dto.getStatus() != null ? AccountStatus.valueOf(dto.getStatus()) : AccountStatus.AVAILABLE);
         account.setCreated(Instant.now());
         
         Account savedAccount = accountRepository.save(account);
+        fingerprintIndex.add(fingerprint);
+        if (savedAccount.getStatus() == AccountStatus.AVAILABLE) {
+            stockService.adjust(product.getId(), 1);
+        }
         return modelMapper.map(savedAccount, AccountResponseDTO.class);
     }
 
+    @Override
+    @Transactional
+    public List<Integer> importAccounts(List<AccountRequestDTO> accounts) {
+        // Drop duplicates within the chunk, then look up in MySQL only what the filter cannot rule out
+        List<byte[]> fingerprints = new ArrayList<>(accounts.size());
+        Set<ByteBuffer> seen = new HashSet<>();
+        List<ByteBuffer> candidates = new ArrayList<>();
+        for (AccountRequestDTO dto : accounts) {
+            byte[] fingerprint = AccountFingerprintIndex.fingerprint(dto.getProductId(), dto.getUsername());
+            fingerprints.add(fingerprint);
+            if (seen.add(ByteBuffer.wrap(fingerprint)) && fingerprintIndex.mightContain(fingerprint)) {
+                candidates.add(ByteBuffer.wrap(fingerprint));
+            }
+        }
+        Set<ByteBuffer> existing = new HashSet<>();
+        if (!candidates.isEmpty()) {
+            List<byte[]> lookup = candidates.stream().map(ByteBuffer::array).toList();
+            for (byte[] stored : accountRepository.findExistingFingerprints(lookup)) {
+                existing.add(ByteBuffer.wrap(stored));
+            }
+            // Sold accounts deleted by archiving
+            for (byte[] archived : accountRepository.findArchivedFingerprints(lookup)) {
+                existing.add(ByteBuffer.wrap(archived));
+            }
+        }
+
+        List<Integer> duplicates = new ArrayList<>();
+        List<Integer> inserts = new ArrayList<>(accounts.size());
+        Set<ByteBuffer> inserted = new HashSet<>();
+        for (int i = 0; i < accounts.size(); i++) {
+            ByteBuffer key = ByteBuffer.wrap(fingerprints.get(i));
+            if (existing.contains(key) || !inserted.add(key)) {
+                duplicates.add(i);
+            } else {
+                inserts.add(i);
+            }
+        }
+
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO accounts (product_id, username, password, status, created, fingerprint) " +
+                        "VALUES (?, ?, ?, ?, ?, ?)",
+                inserts, inserts.size(), (statement, i) -> {
+                    AccountRequestDTO dto = accounts.get(i);
+                    statement.setLong(1, dto.getProductId());
+                    statement.setString(2, dto.getUsername());
+                    statement.setString(3, dto.getPassword());
+                    statement.setString(4, dto.getStatus() != null ? dto.getStatus() : AccountStatus.AVAILABLE.name());
+                    statement.setTimestamp(5, now);
+                    statement.setBytes(6, fingerprints.get(i));
+                });
+        Map<Long, Integer> available = new HashMap<>();
+        for (int i : inserts) {
+            AccountRequestDTO dto = accounts.get(i);
+            fingerprintIndex.add(fingerprints.get(i));
+            if (dto.getStatus() == null || AccountStatus.AVAILABLE.name().equals(dto.getStatus())) {
+                available.merge(dto.getProductId(), 1, Integer::sum);
+            }
+        }
+        available.forEach(stockService::adjust);
+        return duplicates;
+    }
+
+    private boolean isStoredFingerprint(byte[] fingerprint) {
+        return accountRepository.existsByFingerprint(fingerprint)
+                || !accountRepository.findArchivedFingerprints(List.of(fingerprint)).isEmpty();
+    }
+
+    @Override
+    public Map<String, Long> backfillFingerprints(int chunkSize) {
+        long maxId = accountRepository.findMaxId();
+        long fingerprinted = 0;
+        for (long fromId = 0; fromId < maxId; fromId += chunkSize) {
+            fingerprinted += accountRepository.backfillFingerprints(fromId, Math.min(fromId + chunkSize, maxId));
+        }
+        fingerprintIndex.reload();
+        return Map.of(
+                "fingerprinted", fingerprinted,
+                "duplicates", accountRepository.countByFingerprintIsNull());
+    }
+
     @Override
     public Account getAccountById(Long id) {
         return accountRepository.findById(id)
@@ -62,11 +194,73 @@ public class AccountServiceImpl implements AccountService {
         return accountRepository.findAll(pageable);
     }
 
+    @Override
+    public CursorPageResponseDTO<Account> scrollAccounts(String cursor, Integer size, boolean withTotal) {
+        return cursorPagination.scrollById(cursor, size, withTotal,
+                (lastId, limit) -> accountRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(limit)),
+                Account::getId, accountRepository::count);
+    }
+
     @Override
     public List<Account> findSoldAccountsByUserId(Long userId) {
         return accountRepository.findSoldAccountsByUserId(userId);
     }
 
+    @Override
+    public CursorPageResponseDTO<PurchasedAccountDTO> getPurchasedAccounts(Long userId, String cursor, Integer size, boolean withTotal) {
+        int pageSize = cursorPagination.capSize(size);
+        CursorPagination.Cursor position = cursorPagination.decode(cursor);
+
+        List<PurchasedAccountDTO> rows;
+        List<PurchasedAccountDTO> archived;
+        if (position == null) {
+            rows = accountRepository.findPurchasedFirstPage(userId, Limit.of(pageSize + 1));
+            archived = archivedPurchaseRepository.findFirstPage(userId, Limit.of(pageSize + 1));
+        } else {
+            Instant afterSold = parseInstant(position.sortKey());
+            rows = accountRepository.findPurchasedPageAfter(userId, afterSold, position.id(), Limit.of(pageSize + 1));
+            archived = archivedPurchaseRepository.findPageAfter(userId, afterSold, position.id(), Limit.of(pageSize + 1));
+        }
+
+        // Accounts of archived orders live in their own table; both pages are in (sold, id) order, so merge them
+        if (!archived.isEmpty()) {
+            List<PurchasedAccountDTO> merged = new ArrayList<>(rows);
+            merged.addAll(archived);
+            merged.sort(Comparator.comparing(this::soldKey).thenComparing(PurchasedAccountDTO::getId).reversed());
+            rows = merged.subList(0, Math.min(merged.size(), pageSize + 1));
+        }
+
+        Long total = withTotal
+                ? accountRepository.countPurchasedByUserId(userId) + archivedPurchaseRepository.countByUserId(userId)
+                : null;
+        return cursorPagination.page(rows, pageSize,
+                row -> cursorPagination.encode(String.valueOf(soldKey(row)), row.getId()), total);
+    }
+
+    private Instant soldKey(PurchasedAccountDTO purchase) {
+        return purchase.getSold() != null ? purchase.getSold() : Instant.EPOCH;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamPurchasedAccounts(Long userId, Consumer<PurchasedAccountDTO> consumer) {
+        try (Stream<PurchasedAccountDTO> purchases = accountRepository.streamPurchasedByUserId(userId)) {
+            purchases.forEach(consumer);
+        }
+        // One streaming result set per connection: archived accounts follow once the first is closed
+        try (Stream<PurchasedAccountDTO> purchases = archivedPurchaseRepository.streamByUserId(userId)) {
+            purchases.forEach(consumer);
+        }
+    }
+
+    private Instant parseInstant(String value) {
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
     @Override
     public List<Account> getAccountsByProduct(Long productId) {
         return accountRepository.findByProductId(productId);
@@ -74,7 +268,27 @@ public class AccountServiceImpl implements AccountService {
 
     @Override
     public List<Account> getAvailableAccountsByProduct(Long productId) {
-        return accountRepository.findByProductIdAndStatus(productId, "AVAILABLE");
+        return accountRepository.findByProductIdAndStatus(productId, AccountStatus.AVAILABLE);
+    }
+
+    @Override
+    public Map<Long, Long> countAvailableAccounts(Collection<Long> productIds) {
+        return availabilityCache.getAll(productIds, missing -> {
+            Map<Long, Long> counts = new HashMap<>();
+            for (Object[] row : accountRepository.countAvailableByProductIds(missing)) {
+                counts.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+            }
+            return counts;
+        });
+    }
+
+    @Override
+    public boolean isInStock(Long productId) {
+        Long cached = availabilityCache.getIfPresent(productId);
+        if (cached != null) {
+            return cached > 0;
+        }
+        return accountRepository.existsByProductIdAndStatus(productId, AccountStatus.AVAILABLE);
     }
 
     @Override
@@ -86,18 +300,38 @@ public class AccountServiceImpl implements AccountService {
         Product product = productRepository.findById(dto.getProductId())
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + dto.getProductId()));
         
+        Long oldProductId = account.getProduct().getId();
+        AccountStatus oldStatus = account.getStatus();
+        boolean wasAvailable = oldStatus == AccountStatus.AVAILABLE;
+
+        byte[] fingerprint = AccountFingerprintIndex.fingerprint(product.getId(), dto.getUsername());
+        if (!Arrays.equals(fingerprint, account.getFingerprint())
+                && fingerprintIndex.mightContain(fingerprint) && isStoredFingerprint(fingerprint)) {
+            throw new ConflictException("Account already exists for product id: " + product.getId());
+        }
+
         // Map DTO to existing entity
         modelMapper.map(dto, account);
         
         account.setProduct(product);
+        account.setFingerprint(fingerprint);
         if (dto.getStatus() != null) {
-            account.setStatus(dto.getStatus());
-            if ("SOLD".equals(dto.getStatus())) {
+            account.setStatus(AccountStatus.valueOf(dto.getStatus()));
+            if (account.getStatus() == AccountStatus.SOLD) {
                 account.setSold(Instant.now());
             }
+        } else {
+            account.setStatus(oldStatus);
         }
         
         Account savedAccount = accountRepository.save(account);
+        fingerprintIndex.add(fingerprint);
+        if (wasAvailable) {
+            stockService.adjust(oldProductId, -1);
+        }
+        if (savedAccount.getStatus() == AccountStatus.AVAILABLE) {
+            stockService.adjust(product.getId(), 1);
+        }
         return modelMapper.map(savedAccount, AccountResponseDTO.class);
     }
 
@@ -107,5 +341,8 @@ public class AccountServiceImpl implements AccountService {
         Account account = accountRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Account not found with id: " + id));
         accountRepository.delete(account);
+        if (account.getStatus() == AccountStatus.AVAILABLE) {
+            stockService.adjust(account.getProduct().getId(), -1);
+        }
     }
 }
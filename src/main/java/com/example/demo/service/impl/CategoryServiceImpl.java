@@ -1,12 +1,16 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.component.CursorPagination;
+import com.example.demo.component.ProductCache;
 import com.example.demo.dto.request.CategoryRequestDTO;
 import com.example.demo.dto.response.CategoryResponseDTO;
+import com.example.demo.dto.response.CursorPageResponseDTO;
 import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.model.entity.Category;
 import com.example.demo.repository.mysql.CategoryRepository;
 import com.example.demo.service.CategoryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -27,6 +31,12 @@ public class CategoryServiceImpl implements CategoryService {
     @Autowired
     private org.modelmapper.ModelMapper modelMapper;
 
+    @Autowired
+    private CursorPagination cursorPagination;
+
+    @Autowired
+    private ProductCache productCache;
+
     @Override
     public Category findCategoryById(Long id) {
         return categoryRepository.findById(id)
@@ -53,6 +63,13 @@ public class CategoryServiceImpl implements CategoryService {
     public Page<Category> getAllCategories(Pageable pageable) {
         return categoryRepository.findAll(pageable);
     }
+
+    @Override
+    public CursorPageResponseDTO<Category> scrollCategories(String cursor, Integer size, boolean withTotal) {
+        return cursorPagination.scrollById(cursor, size, withTotal,
+                (lastId, limit) -> categoryRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(limit)),
+                Category::getId, categoryRepository::count);
+    }
     
     @Override
     @Transactional
@@ -64,6 +81,8 @@ public class CategoryServiceImpl implements CategoryService {
         modelMapper.map(dto, category);
         
         Category savedCategory = categoryRepository.save(category);
+        // Cached products carry the category name
+        productCache.invalidateAllAfterCommit();
         return modelMapper.map(savedCategory, CategoryResponseDTO.class);
     }
     
@@ -73,5 +92,6 @@ public class CategoryServiceImpl implements CategoryService {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
         categoryRepository.delete(category);
+        productCache.invalidateAllAfterCommit();
     }
 }
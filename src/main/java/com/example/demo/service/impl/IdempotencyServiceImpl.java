@@ -0,0 +1,152 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.dto.response.OrderResponseDTO;
+import com.example.demo.exception.ConflictException;
+import com.example.demo.model.entity.IdempotencyKey;
+import com.example.demo.model.entity.IdempotencyKeyId;
+import com.example.demo.repository.mysql.IdempotencyKeyRepository;
+import com.example.demo.service.IdempotencyService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Implementation of IdempotencyService.
+ * Recent responses are served from a bounded in-memory cache; the idempotency_keys table
+ * makes keys survive restarts and decides between duplicates arriving on different nodes.
+ * Keys are scoped per user.
+ */
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${app.idempotency.cache-size:100000}")
+    private long cacheSize;
+
+    @Value("${app.idempotency.wait-timeout-ms:10000}")
+    private long waitTimeoutMs;
+
+    private Cache<String, OrderResponseDTO> responses;
+
+    private final ConcurrentHashMap<String, CompletableFuture<OrderResponseDTO>> inFlight = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        responses = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofHours(ttlHours))
+                .build();
+    }
+
+    @Override
+    public IdempotentResult createOrderOnce(String key, Long userId, Supplier<OrderResponseDTO> createOrder) {
+        String cacheKey = userId + ":" + key;
+        OrderResponseDTO cached = responses.getIfPresent(cacheKey);
+        if (cached != null) {
+            return new IdempotentResult(cached, true);
+        }
+
+        // Duplicates on this node wait for the request already running
+        CompletableFuture<OrderResponseDTO> future = new CompletableFuture<>();
+        CompletableFuture<OrderResponseDTO> running = inFlight.putIfAbsent(cacheKey, future);
+        if (running != null) {
+            return new IdempotentResult(await(running), true);
+        }
+
+        try {
+            IdempotentResult result = execute(key, userId, createOrder);
+            responses.put(cacheKey, result.getResponse());
+            future.complete(result.getResponse());
+            return result;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(cacheKey, future);
+        }
+    }
+
+    @Override
+    public int purgeExpiredKeys() {
+        return idempotencyKeyRepository.deleteByCreatedBefore(Instant.now().minus(Duration.ofHours(ttlHours)));
+    }
+
+    private IdempotentResult execute(String key, Long userId, Supplier<OrderResponseDTO> createOrder) {
+        // Key, order and response commit together: a crash before commit leaves no key behind,
+        // and a duplicate on another node blocks on the key row until the first request ends
+        AtomicBoolean inserted = new AtomicBoolean();
+        try {
+            return transactionTemplate.execute(status -> {
+                idempotencyKeyRepository.insertKey(key, userId, Instant.now());
+                inserted.set(true);
+                OrderResponseDTO response = createOrder.get();
+                idempotencyKeyRepository.completeKey(key, userId, response.getId(), jsonMapper.writeValueAsString(response));
+                return new IdempotentResult(response, false);
+            });
+        } catch (DataIntegrityViolationException e) {
+            if (inserted.get()) {
+                throw e;
+            }
+            // Seen before
+            return new IdempotentResult(awaitStored(key, userId), true);
+        } catch (PessimisticLockingFailureException e) {
+            if (inserted.get()) {
+                throw e;
+            }
+            throw new ConflictException("A request with this Idempotency-Key is still being processed");
+        }
+    }
+
+    private OrderResponseDTO await(CompletableFuture<OrderResponseDTO> running) {
+        try {
+            return running.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ConflictException("A request with this Idempotency-Key is still being processed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Interrupted while waiting for the original request");
+        }
+    }
+
+    private OrderResponseDTO awaitStored(String key, Long userId) {
+        Optional<IdempotencyKey> stored = idempotencyKeyRepository.findById(new IdempotencyKeyId(userId, key));
+        if (stored.isEmpty() || stored.get().getResponse() == null) {
+            throw new ConflictException("The original request with this Idempotency-Key failed, please retry");
+        }
+        return jsonMapper.readValue(stored.get().getResponse(), OrderResponseDTO.class);
+    }
+}
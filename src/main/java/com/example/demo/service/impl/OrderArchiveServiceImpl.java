@@ -0,0 +1,134 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.component.OrderArchive;
+import com.example.demo.dto.response.AccountResponseDTO;
+import com.example.demo.dto.response.OrderItemResponseDTO;
+import com.example.demo.dto.response.OrderResponseDTO;
+import com.example.demo.model.entity.Order;
+import com.example.demo.repository.mysql.AccountRepository;
+import com.example.demo.repository.mysql.ArchivedPurchaseRepository;
+import com.example.demo.repository.mysql.OrderRepository;
+import com.example.demo.service.OrderArchiveService;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Implementation of OrderArchiveService.
+ * Loading and deleting run in separate transactions; the archive write happens in between.
+ * A batch is written to the archive and synced before it is deleted from MySQL, so an
+ * interrupted batch is simply picked up again: orders already in the archive are only deleted.
+ */
+@Service
+public class OrderArchiveServiceImpl implements OrderArchiveService {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private ArchivedPurchaseRepository archivedPurchaseRepository;
+
+    @Autowired
+    private OrderArchive orderArchive;
+
+    @Autowired
+    private ModelMapper modelMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.archive.min-age-days:180}")
+    private long minAgeDays;
+
+    @Value("${app.archive.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.archive.max-batches-per-run:50}")
+    private int maxBatchesPerRun;
+
+    @Override
+    public synchronized int archive() {
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Instant cutoff = Instant.now().minus(Duration.ofDays(minAgeDays));
+            List<Long> orderIds = orderRepository.findArchivableIds(cutoff, batchSize);
+            if (orderIds.isEmpty()) {
+                break;
+            }
+            List<Long> pending = new ArrayList<>();
+            for (Long orderId : orderIds) {
+                if (!orderArchive.contains(orderId)) {
+                    pending.add(orderId);
+                }
+            }
+            if (!pending.isEmpty()) {
+                orderArchive.append(transactionTemplate.execute(status -> loadOrders(pending)));
+            }
+            total += transactionTemplate.execute(status -> deleteOrders(orderIds));
+            if (orderIds.size() < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public int archiveSize() {
+        return orderArchive.size();
+    }
+
+    @Override
+    public Optional<OrderResponseDTO> findArchivedOrder(Long id) {
+        return orderArchive.find(id);
+    }
+
+    @Override
+    public List<AccountResponseDTO> findArchivedSoldAccounts(Long userId) {
+        List<AccountResponseDTO> accounts = new ArrayList<>();
+        for (OrderResponseDTO order : orderArchive.findByUserId(userId)) {
+            if (order.getOrderItems() == null) {
+                continue;
+            }
+            for (OrderItemResponseDTO item : order.getOrderItems()) {
+                if (item.getAccounts() != null) {
+                    accounts.addAll(item.getAccounts());
+                }
+            }
+        }
+        return accounts;
+    }
+
+    private List<OrderResponseDTO> loadOrders(Collection<Long> orderIds) {
+        List<OrderResponseDTO> orders = new ArrayList<>();
+        for (Order order : orderRepository.findAllById(orderIds)) {
+            OrderResponseDTO dto = modelMapper.map(order, OrderResponseDTO.class);
+            dto.setUserId(order.getUser().getId());
+            dto.setUsername(order.getUser().getUsername());
+            dto.setCustomerNote(order.getCustomerNote());
+            orders.add(dto);
+        }
+        return orders;
+    }
+
+    private int deleteOrders(Collection<Long> orderIds) {
+        // Purchases stay pageable from MySQL once their accounts are gone
+        archivedPurchaseRepository.archive(orderIds);
+        // Resent credentials of archived accounts must still be recognised as duplicates
+        accountRepository.archiveFingerprints(orderIds);
+        accountRepository.deleteByOrderIds(orderIds);
+        // Items follow through ON DELETE CASCADE; summaries are kept for the order history
+        return orderRepository.deleteByIds(orderIds);
+    }
+}
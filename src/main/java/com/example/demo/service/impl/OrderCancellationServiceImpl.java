@@ -0,0 +1,69 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.model.entity.Order;
+import com.example.demo.model.enums.OrderStatus;
+import com.example.demo.repository.mysql.AccountRepository;
+import com.example.demo.repository.mysql.OrderRepository;
+import com.example.demo.service.OrderCancellationService;
+import com.example.demo.service.OrderSummaryService;
+import com.example.demo.service.OutboxService;
+import com.example.demo.service.StockService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of OrderCancellationService.
+ * A chunk costs a fixed number of statements however many orders and accounts it contains.
+ */
+@Service
+public class OrderCancellationServiceImpl implements OrderCancellationService {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private OrderSummaryService orderSummaryService;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Override
+    @Transactional
+    public CancellationResult cancelOrders(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return new CancellationResult(0, 0);
+        }
+        List<Long> lockedIds = orderRepository.lockCancellableIds(orderIds);
+        if (lockedIds.isEmpty()) {
+            return new CancellationResult(0, 0);
+        }
+
+        Map<Long, OrderStatus> previousStatuses = new HashMap<>();
+        for (Order order : orderRepository.findAllById(lockedIds)) {
+            previousStatuses.put(order.getId(), order.getStatus());
+        }
+
+        List<Object[]> heldByProduct = accountRepository.countHeldByProduct(lockedIds);
+        int released = accountRepository.releaseOrderAccounts(lockedIds);
+        for (Object[] row : heldByProduct) {
+            stockService.adjust(((Number) row[0]).longValue(), ((Number) row[1]).intValue());
+        }
+        orderRepository.updateStatusByIds(lockedIds, OrderStatus.CANCELLED, Instant.now());
+        orderSummaryService.refresh(lockedIds);
+        outboxService.recordOrderEvents("ORDER_CANCELLED", previousStatuses);
+        return new CancellationResult(lockedIds.size(), released);
+    }
+}
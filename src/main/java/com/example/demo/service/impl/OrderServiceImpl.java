@@ -1,21 +1,36 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.component.ClaimBuffer;
+import com.example.demo.component.CursorPagination;
+import com.example.demo.component.InventoryLedger;
+import com.example.demo.component.OrderCodeGenerator;
 import com.example.demo.dto.request.OrderItemRequestDTO;
 import com.example.demo.dto.request.OrderRequestDTO;
+import com.example.demo.dto.response.CursorPageResponseDTO;
 import com.example.demo.dto.response.OrderItemResponseDTO;
 import com.example.demo.dto.response.OrderResponseDTO;
 import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.model.entity.Account;
 import com.example.demo.model.entity.Order;
 import com.example.demo.model.entity.OrderItem;
 import com.example.demo.model.entity.Product;
 import com.example.demo.model.entity.User;
+import com.example.demo.model.enums.AccountStatus;
+import com.example.demo.model.enums.OrderStatus;
+import com.example.demo.repository.mysql.AccountRepository;
 import com.example.demo.repository.mysql.OrderItemRepository;
 import com.example.demo.repository.mysql.OrderRepository;
 import com.example.demo.repository.mysql.ProductRepository;
 import com.example.demo.repository.mysql.UserRepository;
+import com.example.demo.service.OrderCancellationService;
 import com.example.demo.service.OrderService;
+import com.example.demo.service.OrderSummaryService;
+import com.example.demo.service.OutboxService;
+import com.example.demo.service.ReservationService;
+import com.example.demo.service.StockService;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -23,11 +38,15 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 /**
  * Implementation of OrderService.
@@ -49,12 +68,42 @@ public class OrderServiceImpl implements OrderService {
     private ProductRepository productRepository;
 
     @Autowired
-    private com.example.demo.repository.mysql.AccountRepository accountRepository;
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private InventoryLedger inventoryLedger;
+
+    @Autowired
+    private ClaimBuffer claimBuffer;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private OrderCancellationService orderCancellationService;
+
+    @Autowired
+    private OrderSummaryService orderSummaryService;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OrderCodeGenerator orderCodeGenerator;
 
     @Autowired
     private ModelMapper modelMapper;
 
-    //TODO IMPLEMENT RESERVATION LOGIC FOR PENDING ORDERS
+    @Autowired
+    private CursorPagination cursorPagination;
+
+    /**
+     * Create a PENDING order whose accounts stay RESERVED until payment is confirmed
+     * through {@link #updateOrderStatus} or the reservation expires.
+     */
     @Override
     @Transactional
     public OrderResponseDTO createOrder(OrderRequestDTO dto) {
@@ -63,85 +112,31 @@ public class OrderServiceImpl implements OrderService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + dto.getUserId()));
 
 
-        modelMapper.typeMap(OrderRequestDTO.class, Order.class);
-        
         // Create order
-        Order order = new Order();
-        modelMapper.map(dto, order);
-        order.setOrderCode(generateOrderCode());
-        order.setUser(user);
-        order.setCustomerNote(dto.getCustomerNote());
-        order.setCreated(Instant.now());
-        order.setUpdated(Instant.now());
+        Order order = newOrder(dto, user);
+
+        // Lock the accounts for every product before anything is written
+        Map<Long, Product> products = new HashMap<>();
+        Map<Long, Deque<Long>> claimedAccounts = claimAccounts(sumQuantities(dto.getOrderItems()), products);
 
         // Create order items and calculate total
-        BigDecimal totalAmount = BigDecimal.ZERO;
         List<OrderItem> orderItems = new ArrayList<>();
-        
-        // Map to keep track of accounts already "claimed" in this transaction
-        java.util.Map<Long, Integer> productToClaimedCount = new java.util.HashMap<>();
+        BigDecimal totalAmount = addOrderItems(order, dto.getOrderItems(), products, orderItems);
 
-        for (OrderItemRequestDTO itemDto : dto.getOrderItems()) {
-            Product product = productRepository.findById(itemDto.getProductId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + itemDto.getProductId()));
-            
-            // Check available accounts first
-            List<com.example.demo.model.entity.Account> availableAccounts = accountRepository.findByProductIdAndStatus(product.getId(), "AVAILABLE");
-            int alreadyClaimed = productToClaimedCount.getOrDefault(product.getId(), 0);
-            
-            if (availableAccounts.size() < itemDto.getQuantity() + alreadyClaimed) {
-                throw new IllegalArgumentException("Insufficient available accounts for product: " + product.getName());
-            }
-            
-            OrderItem orderItem = new OrderItem();
-            orderItem.setOrder(order);
-            orderItem.setProduct(product);
-            orderItem.setQuantity(itemDto.getQuantity());
-            orderItem.setUnitPrice(product.getPrice());
-            
-            BigDecimal itemTotal = product.getPrice().multiply(BigDecimal.valueOf(itemDto.getQuantity()));
-            orderItem.setTotalPrice(itemTotal);
-            totalAmount = totalAmount.add(itemTotal);
-            
-            orderItems.add(orderItem);
-            productToClaimedCount.put(product.getId(), alreadyClaimed + itemDto.getQuantity());
-            
-            // Update product stock
-            product.setStock(product.getStock() - itemDto.getQuantity());
-            productRepository.save(product);
-        }
-        
         order.setTotalAmount(totalAmount);
         order.setOrderItems(orderItems);
-        order.setStatus("COMPLETED");
+        order.setStatus(OrderStatus.PENDING);
+        order.setReservedUntil(reservationService.newReservationDeadline());
         
         // Save order and items first to generate IDs
         Order savedOrder = orderRepository.saveAndFlush(order);
 
-        // Reset claimed count for assignment phase
-        productToClaimedCount.clear();
-
-        // Now link accounts to saved items
-        for (OrderItem savedItem : savedOrder.getOrderItems()) {
-             List<com.example.demo.model.entity.Account> availableAccounts = 
-                 accountRepository.findByProductIdAndStatus(savedItem.getProduct().getId(), "AVAILABLE");
-             
-             int alreadyClaimed = productToClaimedCount.getOrDefault(savedItem.getProduct().getId(), 0);
-             List<com.example.demo.model.entity.Account> assignedAccounts = new ArrayList<>();
-             for (int i = 0; i < savedItem.getQuantity(); i++) {
-                 com.example.demo.model.entity.Account account = availableAccounts.get(alreadyClaimed + i);
-                 account.setOrderItem(savedItem);
-                 account.setStatus("SOLD");
-                 account.setSold(Instant.now());
-                 accountRepository.save(account);
-                 assignedAccounts.add(account);
-             }
-             savedItem.setAccounts(assignedAccounts);
-             productToClaimedCount.put(savedItem.getProduct().getId(), alreadyClaimed + savedItem.getQuantity());
-        }
+        // Now hold the claimed accounts for the saved items
+        assignAccounts(savedOrder.getOrderItems(), claimedAccounts, AccountStatus.RESERVED);
+        orderSummaryService.refresh(List.of(savedOrder.getId()));
+        outboxService.recordOrderEvent("ORDER_CREATED", savedOrder, null);
         
-        Order finalOrder = orderRepository.save(savedOrder);
-        OrderResponseDTO response =  modelMapper.map(finalOrder, OrderResponseDTO.class);
+        OrderResponseDTO response =  modelMapper.map(savedOrder, OrderResponseDTO.class);
         response.setUsername(user.getUsername());
         return response;
     }
@@ -157,100 +152,302 @@ public class OrderServiceImpl implements OrderService {
             throw new IllegalStateException("Cannot update order that is already placed (status not null)");
         }
 
-        // Handle items and stock
-        // 1. Restore stock and accounts for existing items
-        if (order.getOrderItems() != null) {
-            for (OrderItem existingItem : order.getOrderItems()) {
-                Product product = existingItem.getProduct();
-                product.setStock(product.getStock() + existingItem.getQuantity());
-                productRepository.save(product);
-                
-                // Restore accounts status
-                if (existingItem.getAccounts() != null) {
-                    for (com.example.demo.model.entity.Account acc : existingItem.getAccounts()) {
-                        acc.setOrderItem(null);
-                        acc.setStatus("AVAILABLE");
-                        acc.setSold(null);
-                        accountRepository.save(acc);
-                    }
-                }
-            }
-            order.getOrderItems().clear();
-        } else {
+        if (order.getOrderItems() == null) {
             order.setOrderItems(new ArrayList<>());
         }
 
-        // 2. Add new items and deduct stock
-        BigDecimal totalAmount = BigDecimal.ZERO;
+        // Apply only the difference between the current and the requested quantity per product
+        Map<Long, Integer> requestedQuantities = sumQuantities(items);
+        Map<Long, OrderItem> currentItems = collapseItemsByProduct(order);
+        Map<Long, Integer> extraQuantities = new LinkedHashMap<>();
+        List<Long> removedItemIds = new ArrayList<>();
+
+        for (OrderItem item : currentItems.values()) {
+            Long productId = item.getProduct().getId();
+            int requested = requestedQuantities.getOrDefault(productId, 0);
+            int delta = requested - item.getQuantity();
+            if (requested == 0) {
+                // Removed product: released in bulk below
+                stockService.adjust(item.getProduct().getId(), item.getQuantity());
+                removedItemIds.add(item.getId());
+            } else if (delta < 0) {
+                // Release only the surplus accounts
+                accountRepository.releaseFromOrderItem(item.getId(), -delta);
+                stockService.adjust(item.getProduct().getId(), -delta);
+                setQuantity(item, requested);
+            } else if (delta > 0) {
+                extraQuantities.put(productId, delta);
+            }
+        }
+        if (!removedItemIds.isEmpty()) {
+            accountRepository.releaseByOrderItemIds(removedItemIds);
+            order.getOrderItems().removeIf(item -> removedItemIds.contains(item.getId()));
+        }
+
+        List<OrderItemRequestDTO> newLines = new ArrayList<>();
+        for (OrderItemRequestDTO itemDto : items) {
+            if (!currentItems.containsKey(itemDto.getProductId())) {
+                extraQuantities.merge(itemDto.getProductId(), itemDto.getQuantity(), Integer::sum);
+                newLines.add(itemDto);
+            }
+        }
+
+        // Claim only the additional accounts: extra units of kept lines and new products
+        Map<Long, Product> products = new HashMap<>();
+        Map<Long, Deque<Long>> claimedAccounts = extraQuantities.isEmpty()
+                ? new HashMap<>()
+                : claimAccounts(extraQuantities, products);
+
+        Instant sold = Instant.now();
+        for (OrderItem item : currentItems.values()) {
+            Integer extra = extraQuantities.get(item.getProduct().getId());
+            if (extra == null) {
+                continue;
+            }
+            Deque<Long> available = claimedAccounts.get(item.getProduct().getId());
+            List<Long> accountIds = new ArrayList<>(extra);
+            for (int i = 0; i < extra; i++) {
+                accountIds.add(available.poll());
+            }
+            accountRepository.assignToOrderItem(accountIds, item, AccountStatus.SOLD, sold);
+            setQuantity(item, item.getQuantity() + extra);
+        }
+
         List<OrderItem> newOrderItems = new ArrayList<>();
-        
-        // Map to keep track of accounts already "claimed" in this transaction to avoid double assignment
-        java.util.Map<Long, Integer> productToClaimedCount = new java.util.HashMap<>();
+        addOrderItems(order, newLines, products, newOrderItems);
+        order.getOrderItems().addAll(newOrderItems);
+
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for (OrderItem item : order.getOrderItems()) {
+            totalAmount = totalAmount.add(item.getTotalPrice());
+        }
+        order.setTotalAmount(totalAmount);
+        order.setUpdated(Instant.now());
+
+        // Save order and new items first
+        Order savedOrder = orderRepository.saveAndFlush(order);
+
+        // Link accounts to the new items
+        assignAccounts(newOrderItems, claimedAccounts, AccountStatus.SOLD);
+        orderSummaryService.refresh(List.of(savedOrder.getId()));
+
+        OrderResponseDTO response = modelMapper.map(savedOrder, OrderResponseDTO.class);
+        response.setUsername(order.getUser().getUsername());
+        return response;
+    }
+
+    @Override
+    @Transactional
+    public OrderResponseDTO createOrderIntent(OrderRequestDTO dto) {
+        User user = userRepository.findById(dto.getUserId())
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + dto.getUserId()));
+
+        Order order = newOrder(dto, user);
+
+        // Price the items without touching accounts; fulfillment claims them later
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(sumQuantities(dto.getOrderItems()).keySet())) {
+            products.put(product.getId(), product);
+        }
+        for (OrderItemRequestDTO itemDto : dto.getOrderItems()) {
+            if (!products.containsKey(itemDto.getProductId())) {
+                throw new ResourceNotFoundException("Product not found with id: " + itemDto.getProductId());
+            }
+        }
+
+        List<OrderItem> orderItems = new ArrayList<>();
+        order.setTotalAmount(addOrderItems(order, dto.getOrderItems(), products, orderItems));
+        order.setOrderItems(orderItems);
+        order.setStatus(OrderStatus.PROCESSING);
+
+        Order savedOrder = orderRepository.save(order);
+        orderSummaryService.refresh(List.of(savedOrder.getId()));
+        outboxService.recordOrderEvent("ORDER_CREATED", savedOrder, null);
+        OrderResponseDTO response = modelMapper.map(savedOrder, OrderResponseDTO.class);
+        response.setUsername(user.getUsername());
+        return response;
+    }
 
+    @Override
+    @Transactional
+    public OrderResponseDTO fulfillOrder(Long id) {
+        Order order = orderRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
+
+        if (order.getStatus() == OrderStatus.PROCESSING) {
+            Map<Long, Integer> requestedQuantities = new LinkedHashMap<>();
+            for (OrderItem item : order.getOrderItems()) {
+                requestedQuantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+            }
+            Map<Long, Deque<Long>> claimedAccounts = claimAccounts(requestedQuantities, new HashMap<>());
+            assignAccounts(order.getOrderItems(), claimedAccounts, AccountStatus.RESERVED);
+
+            order.setStatus(OrderStatus.PENDING);
+            order.setReservedUntil(reservationService.newReservationDeadline());
+            order.setUpdated(Instant.now());
+            orderSummaryService.refresh(List.of(id));
+            outboxService.recordOrderEvent("ORDER_STATUS_CHANGED", order, OrderStatus.PROCESSING);
+        }
+
+        OrderResponseDTO response = modelMapper.map(order, OrderResponseDTO.class);
+        response.setUsername(order.getUser().getUsername());
+        return response;
+    }
+
+    private Order newOrder(OrderRequestDTO dto, User user) {
+        modelMapper.typeMap(OrderRequestDTO.class, Order.class);
+
+        Order order = new Order();
+        modelMapper.map(dto, order);
+        order.setOrderCode(generateOrderCode());
+        order.setUser(user);
+        order.setCustomerNote(dto.getCustomerNote());
+        order.setCreated(Instant.now());
+        order.setUpdated(Instant.now());
+        return order;
+    }
+
+    /**
+     * Sum the requested quantity per product, so lines for the same product are claimed together.
+     */
+    private Map<Long, Integer> sumQuantities(List<OrderItemRequestDTO> items) {
+        Map<Long, Integer> requestedQuantities = new LinkedHashMap<>();
         for (OrderItemRequestDTO itemDto : items) {
-            Product product = productRepository.findById(itemDto.getProductId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + itemDto.getProductId()));
-            
-            // Check available accounts
-            List<com.example.demo.model.entity.Account> availableAccounts = accountRepository.findByProductIdAndStatus(product.getId(), "AVAILABLE");
-            int alreadyClaimed = productToClaimedCount.getOrDefault(product.getId(), 0);
-            
-            if (availableAccounts.size() < itemDto.getQuantity() + alreadyClaimed) {
+            requestedQuantities.merge(itemDto.getProductId(), itemDto.getQuantity(), Integer::sum);
+        }
+        return requestedQuantities;
+    }
+
+    /**
+     * Lock the accounts needed for the requested quantities, one claim per product,
+     * so the claim cost depends on the ordered quantity only.
+     *
+     * @param requestedQuantities quantity to claim per product id
+     * @param products filled with the loaded product for every requested product id
+     * @return ids of the locked accounts grouped by product id
+     * @throws IllegalArgumentException if a product does not have enough available accounts
+     */
+    private Map<Long, Deque<Long>> claimAccounts(Map<Long, Integer> requestedQuantities, Map<Long, Product> products) {
+        // Reject out-of-stock lines from the in-memory ledger before querying the database
+        for (Map.Entry<Long, Integer> entry : requestedQuantities.entrySet()) {
+            if (!inventoryLedger.tryReserve(entry.getKey(), entry.getValue())) {
+                throw new IllegalArgumentException("Insufficient available accounts for product id: " + entry.getKey());
+            }
+        }
+
+        Map<Long, Deque<Long>> claimedAccounts = new HashMap<>();
+        for (Map.Entry<Long, Integer> entry : requestedQuantities.entrySet()) {
+            Product product = productRepository.findById(entry.getKey())
+                    .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + entry.getKey()));
+            int quantity = entry.getValue();
+
+            List<Long> accountIds = claimBuffer.claim(product.getId(), quantity);
+            if (accountIds.size() < quantity) {
+                // Buffer ran dry or lost races; rows already locked by this transaction are returned
+                // again, so merge instead of appending
+                Set<Long> merged = new LinkedHashSet<>(accountIds);
+                for (Long id : accountRepository.lockAvailableAccountIds(product.getId(), quantity)) {
+                    if (merged.size() == quantity) {
+                        break;
+                    }
+                    merged.add(id);
+                }
+                accountIds = new ArrayList<>(merged);
+            }
+            if (accountIds.size() < quantity) {
                 throw new IllegalArgumentException("Insufficient available accounts for product: " + product.getName());
             }
-            
+
+            products.put(product.getId(), product);
+            claimedAccounts.put(product.getId(), new ArrayDeque<>(accountIds));
+
+            // Update product stock
+            stockService.deductClaimed(product.getId(), quantity);
+        }
+        return claimedAccounts;
+    }
+
+    /**
+     * Index the items of an order by product, folding duplicate lines of a product into its
+     * first item so every product has a single line to diff against.
+     */
+    private Map<Long, OrderItem> collapseItemsByProduct(Order order) {
+        Map<Long, OrderItem> itemsByProduct = new LinkedHashMap<>();
+        Map<OrderItem, List<Long>> duplicates = new HashMap<>();
+        for (OrderItem item : order.getOrderItems()) {
+            OrderItem primary = itemsByProduct.putIfAbsent(item.getProduct().getId(), item);
+            if (primary != null) {
+                duplicates.computeIfAbsent(primary, k -> new ArrayList<>()).add(item.getId());
+                setQuantity(primary, primary.getQuantity() + item.getQuantity());
+            }
+        }
+        for (Map.Entry<OrderItem, List<Long>> entry : duplicates.entrySet()) {
+            accountRepository.moveToOrderItem(entry.getValue(), entry.getKey());
+            order.getOrderItems().removeIf(item -> entry.getValue().contains(item.getId()));
+        }
+        return itemsByProduct;
+    }
+
+    private void setQuantity(OrderItem item, int quantity) {
+        item.setQuantity(quantity);
+        item.setTotalPrice(item.getUnitPrice().multiply(BigDecimal.valueOf(quantity)));
+    }
+
+    /**
+     * Build order items for the requested lines and attach them to the order.
+     *
+     * @return the total amount of the added items
+     */
+    private BigDecimal addOrderItems(Order order, List<OrderItemRequestDTO> items,
+                                     Map<Long, Product> products, List<OrderItem> target) {
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for (OrderItemRequestDTO itemDto : items) {
+            Product product = products.get(itemDto.getProductId());
+
             OrderItem orderItem = new OrderItem();
             orderItem.setOrder(order);
             orderItem.setProduct(product);
             orderItem.setQuantity(itemDto.getQuantity());
             orderItem.setUnitPrice(product.getPrice());
-            
+
             BigDecimal itemTotal = product.getPrice().multiply(BigDecimal.valueOf(itemDto.getQuantity()));
             orderItem.setTotalPrice(itemTotal);
             totalAmount = totalAmount.add(itemTotal);
-            
-            newOrderItems.add(orderItem);
-            productToClaimedCount.put(product.getId(), alreadyClaimed + itemDto.getQuantity());
-            
-            product.setStock(product.getStock() - itemDto.getQuantity());
-            productRepository.save(product);
+
+            target.add(orderItem);
         }
-        
-        order.getOrderItems().addAll(newOrderItems);
-        order.setTotalAmount(totalAmount);
-        order.setUpdated(Instant.now());
-        
-        // Save order and items first
-        Order savedOrder = orderRepository.saveAndFlush(order);
+        return totalAmount;
+    }
 
-        // Reset claimed count for assignment phase
-        productToClaimedCount.clear();
-
-        // Link accounts to saved items
-        for (OrderItem savedItem : savedOrder.getOrderItems()) {
-            if (savedItem.getAccounts() == null || savedItem.getAccounts().isEmpty()) {
-                List<com.example.demo.model.entity.Account> availableAccounts = 
-                        accountRepository.findByProductIdAndStatus(savedItem.getProduct().getId(), "AVAILABLE");
-                
-                int alreadyClaimed = productToClaimedCount.getOrDefault(savedItem.getProduct().getId(), 0);
-                List<com.example.demo.model.entity.Account> assignedAccounts = new ArrayList<>();
-                for (int i = 0; i < savedItem.getQuantity(); i++) {
-                    com.example.demo.model.entity.Account account = availableAccounts.get(alreadyClaimed + i);
-                    account.setOrderItem(savedItem);
-                    account.setStatus("SOLD");
-                    account.setSold(Instant.now());
-                    accountRepository.save(account);
-                    assignedAccounts.add(account);
-                }
-                savedItem.setAccounts(assignedAccounts);
-                productToClaimedCount.put(savedItem.getProduct().getId(), alreadyClaimed + savedItem.getQuantity());
+    /**
+     * Hand the claimed accounts out to order items that have no accounts yet.
+     * Each item is assigned with a single bulk UPDATE and all assigned accounts are then
+     * read back with one query, so the round trips do not grow with the ordered quantity.
+     *
+     * @param status RESERVED for a pending order, SOLD for an immediate sale
+     */
+    private void assignAccounts(List<OrderItem> orderItems, Map<Long, Deque<Long>> claimedAccounts, AccountStatus status) {
+        Instant sold = status == AccountStatus.SOLD ? Instant.now() : null;
+        Map<Long, OrderItem> assignedItems = new HashMap<>();
+        for (OrderItem savedItem : orderItems) {
+            if (savedItem.getAccounts() != null && !savedItem.getAccounts().isEmpty()) {
+                continue;
+            }
+            Deque<Long> available = claimedAccounts.get(savedItem.getProduct().getId());
+            List<Long> accountIds = new ArrayList<>(savedItem.getQuantity());
+            for (int i = 0; i < savedItem.getQuantity(); i++) {
+                accountIds.add(available.poll());
             }
+            accountRepository.assignToOrderItem(accountIds, savedItem, status, sold);
+            savedItem.setAccounts(new ArrayList<>());
+            assignedItems.put(savedItem.getId(), savedItem);
+        }
+        if (assignedItems.isEmpty()) {
+            return;
+        }
+        for (Account account : accountRepository.findByOrderItemIdIn(assignedItems.keySet())) {
+            assignedItems.get(account.getOrderItem().getId()).getAccounts().add(account);
         }
-        
-        Order finalOrder = orderRepository.save(savedOrder);
-        OrderResponseDTO response = modelMapper.map(finalOrder, OrderResponseDTO.class);
-        response.setUsername(order.getUser().getUsername());
-        return response;
     }
 
     @Override
@@ -265,22 +462,48 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
-    public List<Order> getUserOrders(Long userId) {
-        return orderRepository.findByUserId(userId);
+    public CursorPageResponseDTO<Order> scrollOrders(String cursor, Integer size, boolean withTotal) {
+        return cursorPagination.scrollById(cursor, size, withTotal,
+                (lastId, limit) -> orderRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(limit)),
+                Order::getId, orderRepository::count);
     }
 
 
+
 //
     @Override
     @Transactional
-    public Order updateOrderStatus(Long id, String status) {
-        Order order = orderRepository.findById(id)
+    public Order updateOrderStatus(Long id, OrderStatus status) {
+        Order order = orderRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
 
+        OrderStatus previousStatus = order.getStatus();
+        if (status == OrderStatus.CANCELLED && previousStatus != OrderStatus.CANCELLED) {
+            // Cancel or refund: return reserved and sold accounts and restore stock (records ORDER_CANCELLED)
+            orderCancellationService.cancelOrders(List.of(id));
+            return orderRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
+        }
+
+        // Settle the reservation held by a pending order
+        if (order.getStatus() == OrderStatus.PENDING && status == OrderStatus.COMPLETED) {
+            reservationService.confirmReservation(order);
+            // Bulk statements above cleared the persistence context
+            order = orderRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
+            order.setReservedUntil(null);
+        }
+
         order.setStatus(status);
         order.setUpdated(Instant.now());
 
-        return orderRepository.save(order);
+        Order savedOrder = orderRepository.save(order);
+        orderSummaryService.refresh(List.of(id));
+        if (status != previousStatus) {
+            outboxService.recordOrderEvent(status == OrderStatus.COMPLETED ? "ORDER_COMPLETED" : "ORDER_STATUS_CHANGED",
+                    savedOrder, previousStatus);
+        }
+        return savedOrder;
     }
 
 //    @Override
@@ -297,13 +520,17 @@ public class OrderServiceImpl implements OrderService {
     public void deleteOrder(Long id) {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
+        if (order.getStatus() != OrderStatus.CANCELLED) {
+            // Return the accounts to inventory first so the cascade does not take them along
+            orderCancellationService.cancelOrders(List.of(id));
+            order = orderRepository.findById(id).orElseThrow();
+        }
         orderRepository.delete(order);
+        orderSummaryService.delete(List.of(id));
     }
 
 
     private String generateOrderCode() {
-        String timestamp = String.valueOf(System.currentTimeMillis());
-        String random = UUID.randomUUID().toString().substring(0, 4).toUpperCase();
-        return timestamp + "." + random;
+        return orderCodeGenerator.nextCode();
     }
 }
@@ -0,0 +1,84 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.component.CursorPagination;
+import com.example.demo.dto.response.CursorPageResponseDTO;
+import com.example.demo.dto.response.OrderSummaryResponseDTO;
+import com.example.demo.model.entity.OrderSummary;
+import com.example.demo.repository.mysql.OrderSummaryRepository;
+import com.example.demo.service.OrderSummaryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Implementation of OrderSummaryService.
+ * A page is a single index range scan on (user_id, created, order_id).
+ */
+@Service
+public class OrderSummaryServiceImpl implements OrderSummaryService {
+
+    @Autowired
+    private OrderSummaryRepository orderSummaryRepository;
+
+    @Autowired
+    private CursorPagination cursorPagination;
+
+    @Override
+    @Transactional
+    public void refresh(Collection<Long> orderIds) {
+        if (!orderIds.isEmpty()) {
+            orderSummaryRepository.refresh(orderIds);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void delete(Collection<Long> orderIds) {
+        if (!orderIds.isEmpty()) {
+            orderSummaryRepository.deleteAllByIdInBatch(orderIds);
+        }
+    }
+
+    @Override
+    public CursorPageResponseDTO<OrderSummaryResponseDTO> getUserOrders(Long userId, String cursor, Integer size, boolean withTotal) {
+        int pageSize = cursorPagination.capSize(size);
+        CursorPagination.Cursor position = cursorPagination.decode(cursor);
+
+        List<OrderSummary> rows;
+        if (position == null) {
+            rows = orderSummaryRepository.findFirstPage(userId, pageSize + 1);
+        } else {
+            rows = orderSummaryRepository.findPageAfter(userId, parseInstant(position.sortKey()), position.id(), pageSize + 1);
+        }
+
+        List<OrderSummaryResponseDTO> items = rows.stream().map(this::toResponse).toList();
+        Long total = withTotal ? orderSummaryRepository.countByUserId(userId) : null;
+        return cursorPagination.page(items, pageSize,
+                item -> cursorPagination.encode(String.valueOf(item.getCreated()), item.getId()), total);
+    }
+
+    private Instant parseInstant(String value) {
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private OrderSummaryResponseDTO toResponse(OrderSummary summary) {
+        return OrderSummaryResponseDTO.builder()
+                .id(summary.getOrderId())
+                .orderCode(summary.getOrderCode())
+                .status(summary.getStatus())
+                .totalAmount(summary.getTotalAmount())
+                .itemCount(summary.getItemCount())
+                .productNames(summary.getProductNames())
+                .created(summary.getCreated())
+                .build();
+    }
+}
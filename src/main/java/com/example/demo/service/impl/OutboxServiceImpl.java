@@ -0,0 +1,171 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.component.OutboxSink;
+import com.example.demo.model.entity.Order;
+import com.example.demo.model.entity.OutboxEvent;
+import com.example.demo.model.enums.OrderStatus;
+import com.example.demo.repository.mysql.OrderRepository;
+import com.example.demo.repository.mysql.OutboxEventRepository;
+import com.example.demo.service.OutboxService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Implementation of OutboxService.
+ * Dispatchers on several nodes can run side by side: each locks its batch with SKIP LOCKED
+ * and publishes inside the transaction that marks the batch sent.
+ */
+@Slf4j
+@Service
+public class OutboxServiceImpl implements OutboxService {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private List<OutboxSink> sinks;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Value("${app.outbox.retry-base-ms:1000}")
+    private long retryBaseMs;
+
+    @Value("${app.outbox.retry-max-ms:300000}")
+    private long retryMaxMs;
+
+    @Value("${app.outbox.retention-hours:72}")
+    private long retentionHours;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+    private final LongAdder retriedEvents = new LongAdder();
+    private volatile long lastBatchLagMs;
+    private volatile double eventsPerSecond;
+    private long windowStartMs = System.currentTimeMillis();
+    private long windowCount;
+
+    @Override
+    @Transactional
+    public void recordOrderEvent(String eventType, Order order, OrderStatus previousStatus) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("order_id", order.getId());
+        payload.put("order_code", order.getOrderCode());
+        payload.put("user_id", order.getUser() != null ? order.getUser().getId() : null);
+        payload.put("status", order.getStatus());
+        if (previousStatus != null) {
+            payload.put("previous_status", previousStatus);
+        }
+        payload.put("total_amount", order.getTotalAmount());
+
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateId(order.getId());
+        event.setEventType(eventType);
+        event.setPayload(jsonMapper.writeValueAsString(payload));
+        event.setCreated(Instant.now());
+        event.setAttempts(0);
+        outboxEventRepository.save(event);
+    }
+
+    @Override
+    @Transactional
+    public void recordOrderEvents(String eventType, Map<Long, OrderStatus> previousStatuses) {
+        if (previousStatuses.isEmpty()) {
+            return;
+        }
+        for (Order order : orderRepository.findAllById(previousStatuses.keySet())) {
+            recordOrderEvent(eventType, order, previousStatuses.get(order.getId()));
+        }
+    }
+
+    @Override
+    @Transactional
+    public DispatchResult dispatchBatch(int batchSize) {
+        Instant now = Instant.now();
+        List<OutboxEvent> events = outboxEventRepository.lockPending(now, batchSize);
+        if (events.isEmpty()) {
+            return new DispatchResult(0, false);
+        }
+        List<Long> ids = events.stream().map(OutboxEvent::getId).toList();
+
+        for (OutboxSink sink : sinks) {
+            try {
+                sink.publish(events);
+            } catch (Exception e) {
+                String error = sink.getName() + ": " + e.getMessage();
+                outboxEventRepository.markFailed(ids, now, error.substring(0, Math.min(error.length(), 500)),
+                        retryBaseMs, retryMaxMs);
+                failedBatches.increment();
+                retriedEvents.add(events.size());
+                log.warn("Outbox sink {} failed for {} events: {}", sink.getName(), events.size(), e.getMessage());
+                return new DispatchResult(0, true);
+            }
+        }
+
+        Instant sent = Instant.now();
+        outboxEventRepository.markSent(ids, sent);
+        published.add(events.size());
+        batches.increment();
+        if (events.get(0).getCreated() != null) {
+            lastBatchLagMs = Duration.between(events.get(0).getCreated(), sent).toMillis();
+        }
+        countThroughput(events.size());
+        return new DispatchResult(events.size(), false);
+    }
+
+    @Override
+    public int purgeSent(int batchSize) {
+        Instant cutoff = Instant.now().minus(Duration.ofHours(retentionHours));
+        int total = 0;
+        int deleted;
+        do {
+            deleted = outboxEventRepository.deleteSentBefore(cutoff, batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+        return total;
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("sinks", sinks.stream().map(OutboxSink::getName).toList());
+        metrics.put("published", published.sum());
+        metrics.put("batches", batches.sum());
+        metrics.put("failed_batches", failedBatches.sum());
+        metrics.put("retried_events", retriedEvents.sum());
+        metrics.put("events_per_second", eventsPerSecond);
+        metrics.put("last_batch_lag_ms", lastBatchLagMs);
+        metrics.put("pending", outboxEventRepository.countBySentIsNull());
+        Instant oldest = outboxEventRepository.findOldestPendingCreated();
+        metrics.put("oldest_pending_age_ms", oldest != null ? Duration.between(oldest, Instant.now()).toMillis() : 0);
+        return metrics;
+    }
+
+    /**
+     * Keep the publish rate of the last window of at least a minute.
+     */
+    private synchronized void countThroughput(int events) {
+        long now = System.currentTimeMillis();
+        windowCount += events;
+        if (now - windowStartMs >= 60_000) {
+            eventsPerSecond = windowCount * 1000.0 / (now - windowStartMs);
+            windowStartMs = now;
+            windowCount = 0;
+        }
+    }
+}
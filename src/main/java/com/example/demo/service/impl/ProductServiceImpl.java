@@ -1,6 +1,9 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.component.CursorPagination;
+import com.example.demo.component.ProductCache;
 import com.example.demo.dto.request.ProductRequestDTO;
+import com.example.demo.dto.response.CursorPageResponseDTO;
 import com.example.demo.dto.response.ProductResponseDTO;
 import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.model.entity.Category;
@@ -9,12 +12,19 @@ import com.example.demo.repository.mysql.CategoryRepository;
 import com.example.demo.repository.mysql.ProductRepository;
 import com.example.demo.service.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * Implementation of ProductService.
@@ -32,6 +42,12 @@ public class ProductServiceImpl implements ProductService {
     @Autowired
     private org.modelmapper.ModelMapper modelMapper;
 
+    @Autowired
+    private CursorPagination cursorPagination;
+
+    @Autowired
+    private ProductCache productCache;
+
     @Override
     @Transactional
     public ProductResponseDTO createProduct(ProductRequestDTO productRequestDTO) {
@@ -40,12 +56,14 @@ public class ProductServiceImpl implements ProductService {
 
         Product newProduct = modelMapper.map(productRequestDTO, Product.class);
         newProduct.setCategory(existingCategory);
-        newProduct.setStock(productRequestDTO.getStock() != null ? productRequestDTO.getStock() : 0);
+        // Stock counts AVAILABLE accounts; a new product has none
+        newProduct.setStock(0);
         newProduct.setActive(true);
         newProduct.setCreated(Instant.now());
         newProduct.setUpdated(Instant.now());
                 
         Product savedProduct = productRepository.save(newProduct);
+        productCache.invalidateAfterCommit(savedProduct.getId());
         return modelMapper.map(savedProduct, ProductResponseDTO.class);
     }
 
@@ -60,6 +78,56 @@ public class ProductServiceImpl implements ProductService {
         return productRepository.findAll(pageable);
     }
 
+    @Override
+    public CursorPageResponseDTO<Product> scrollProducts(String cursor, Integer size, boolean withTotal) {
+        return cursorPagination.scrollById(cursor, size, withTotal,
+                (lastId, limit) -> productRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(limit)),
+                Product::getId, productRepository::count);
+    }
+
+    @Override
+    public ProductResponseDTO getProductResponse(Long id) {
+        ProductResponseDTO product = loadResponses(List.of(id)).get(id);
+        if (product == null) {
+            throw new ResourceNotFoundException("Product not found with id: " + id);
+        }
+        return product;
+    }
+
+    @Override
+    public Page<ProductResponseDTO> getProductResponses(Pageable pageable) {
+        Page<Long> ids = productRepository.findAllIds(pageable);
+        Map<Long, ProductResponseDTO> products = loadResponses(ids.getContent());
+        // A product deleted between the two queries is left out of the page
+        List<ProductResponseDTO> items = ids.getContent().stream().map(products::get).filter(Objects::nonNull).toList();
+        return new PageImpl<>(items, pageable, ids.getTotalElements());
+    }
+
+    @Override
+    public CursorPageResponseDTO<ProductResponseDTO> scrollProductResponses(String cursor, Integer size, boolean withTotal) {
+        CursorPageResponseDTO<Long> ids = cursorPagination.scrollById(cursor, size, withTotal,
+                productRepository::findIdsAfter, id -> id, productRepository::count);
+        Map<Long, ProductResponseDTO> products = loadResponses(ids.getItems());
+        List<ProductResponseDTO> items = ids.getItems().stream().map(products::get).filter(Objects::nonNull).toList();
+        return new CursorPageResponseDTO<>(items, items.size(), ids.getNextCursor(), ids.isHasMore(), ids.getTotal());
+    }
+
+    /**
+     * Read products through the cache; all misses are loaded with their categories in one query.
+     */
+    private Map<Long, ProductResponseDTO> loadResponses(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return productCache.getAll(ids, missing -> {
+            Map<Long, ProductResponseDTO> loaded = new HashMap<>();
+            for (Product product : productRepository.findAllWithCategoryByIdIn(missing)) {
+                loaded.put(product.getId(), modelMapper.map(product, ProductResponseDTO.class));
+            }
+            return loaded;
+        });
+    }
+
     @Override
     @Transactional
     public ProductResponseDTO updateProduct(Long id, ProductRequestDTO dto) {
@@ -69,14 +137,16 @@ public class ProductServiceImpl implements ProductService {
         Category category = categoryRepository.findById(dto.getCategory())
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + dto.getCategory()));
         
-        // Map DTO to existing entity
+        // Map DTO to existing entity; stock is derived from accounts and not taken from the request
+        Integer stock = product.getStock();
         modelMapper.map(dto, product);
         
         product.setCategory(category);
-        product.setStock(dto.getStock() != null ? dto.getStock() : 0);
+        product.setStock(stock);
         product.setUpdated(Instant.now());
         
         Product savedProduct = productRepository.save(product);
+        productCache.invalidateAfterCommit(id);
         return modelMapper.map(savedProduct, ProductResponseDTO.class);
     }
 
@@ -88,6 +158,7 @@ public class ProductServiceImpl implements ProductService {
         product.setActive(false);
         product.setUpdated(Instant.now());
         productRepository.save(product);
+        productCache.invalidateAfterCommit(id);
     }
 
     @Override
@@ -96,5 +167,6 @@ public class ProductServiceImpl implements ProductService {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
         productRepository.delete(product);
+        productCache.invalidateAfterCommit(id);
     }
 }
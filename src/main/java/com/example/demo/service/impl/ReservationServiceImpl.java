@@ -0,0 +1,97 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.model.entity.Order;
+import com.example.demo.model.entity.OrderItem;
+import com.example.demo.model.enums.OrderStatus;
+import com.example.demo.repository.mysql.AccountRepository;
+import com.example.demo.repository.mysql.OrderRepository;
+import com.example.demo.service.ReservationService;
+import com.example.demo.service.OrderSummaryService;
+import com.example.demo.service.OutboxService;
+import com.example.demo.service.StockService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of ReservationService.
+ * All state changes are set-based statements, so releasing a batch of orders costs
+ * a fixed number of queries regardless of how many accounts they hold.
+ */
+@Service
+public class ReservationServiceImpl implements ReservationService {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private OrderSummaryService orderSummaryService;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Value("${app.reservation.ttl-seconds:900}")
+    private long ttlSeconds;
+
+    @Override
+    public Instant newReservationDeadline() {
+        return Instant.now().plusSeconds(ttlSeconds);
+    }
+
+    @Override
+    @Transactional
+    public void confirmReservation(Order order) {
+        if (order.getReservedUntil() != null && order.getReservedUntil().isBefore(Instant.now())) {
+            throw new IllegalStateException("Reservation expired for order: " + order.getOrderCode());
+        }
+        Instant now = Instant.now();
+        if (order.getOrderItems() != null) {
+            for (OrderItem item : order.getOrderItems()) {
+                item.setDelivered(now);
+            }
+        }
+        accountRepository.markReservedAccountsSold(order.getId(), now);
+    }
+
+    @Override
+    @Transactional
+    public int releaseReservations(Collection<Long> orderIds, OrderStatus status) {
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> reservedByProduct = accountRepository.countReservedByProduct(orderIds);
+        int released = accountRepository.releaseReservedAccounts(orderIds);
+        for (Object[] row : reservedByProduct) {
+            stockService.adjust(((Number) row[0]).longValue(), ((Number) row[1]).intValue());
+        }
+        orderRepository.updateStatusByIds(orderIds, status, Instant.now());
+        orderSummaryService.refresh(orderIds);
+        return released;
+    }
+
+    @Override
+    @Transactional
+    public int expireReservations(int batchSize) {
+        List<Long> expiredIds = orderRepository.lockExpiredReservationIds(Instant.now(), batchSize);
+        releaseReservations(expiredIds, OrderStatus.CANCELLED);
+        Map<Long, OrderStatus> previousStatuses = new HashMap<>();
+        for (Long orderId : expiredIds) {
+            previousStatuses.put(orderId, OrderStatus.PENDING);
+        }
+        outboxService.recordOrderEvents("ORDER_EXPIRED", previousStatuses);
+        return expiredIds.size();
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.component.AvailabilityCache;
+import com.example.demo.component.FlashSaleGate;
+import com.example.demo.component.InventoryLedger;
+import com.example.demo.component.ProductCache;
+import com.example.demo.repository.mysql.ProductRepository;
+import com.example.demo.service.StockService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of StockService.
+ * Keeps the stock column in step with the accounts table without counting accounts at read time.
+ */
+@Slf4j
+@Service
+public class StockServiceImpl implements StockService {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryLedger inventoryLedger;
+
+    @Autowired
+    private FlashSaleGate flashSaleGate;
+
+    @Autowired
+    private AvailabilityCache availabilityCache;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Override
+    @Transactional
+    public void adjust(Long productId, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        productRepository.adjustStock(productId, delta);
+        inventoryLedger.adjustAfterCommit(productId, delta);
+        availabilityCache.invalidateAfterCommit(productId);
+        productCache.invalidateAfterCommit(productId);
+        if (delta > 0) {
+            // Returned accounts can be sold again during a running flash sale
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    flashSaleGate.restock(productId, delta);
+                }
+            });
+        }
+    }
+
+    @Override
+    @Transactional
+    public void deductClaimed(Long productId, int quantity) {
+        productRepository.adjustStock(productId, -quantity);
+        availabilityCache.invalidateAfterCommit(productId);
+        productCache.invalidateAfterCommit(productId);
+    }
+
+    @Override
+    public Map<Long, long[]> verifyStock(int chunkSize) {
+        Map<Long, long[]> drift = new LinkedHashMap<>();
+        long lastId = 0;
+        while (true) {
+            List<Long> ids = productRepository.findIdsAfter(lastId, chunkSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            long fromId = ids.get(0);
+            long toId = ids.get(ids.size() - 1);
+            for (Object[] row : productRepository.findStockDrift(fromId, toId)) {
+                long productId = ((Number) row[0]).longValue();
+                long stored = row[1] != null ? ((Number) row[1]).longValue() : 0;
+                long actual = ((Number) row[2]).longValue();
+                drift.put(productId, new long[]{stored, actual});
+                productCache.invalidateAfterCommit(productId);
+                log.warn("Stock drift for product {}: stored={} actual={}", productId, stored, actual);
+            }
+            // Each chunk is repaired by one statement that recounts and writes atomically
+            productRepository.repairStock(fromId, toId);
+            lastId = toId;
+        }
+        return drift;
+    }
+}
@@ -1,14 +1,18 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.component.CursorPagination;
 import com.example.demo.component.JwtTokenUtils;
 import com.example.demo.dto.request.UserRequestDTO;
+import com.example.demo.dto.response.CursorPageResponseDTO;
 import com.example.demo.dto.response.UserResponseDTO;
 import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.model.entity.User;
 import com.example.demo.model.entity.UserLoginDTO;
+import com.example.demo.model.enums.UserRole;
 import com.example.demo.repository.mysql.UserRepository;
 import com.example.demo.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -40,13 +44,16 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private JwtTokenUtils jwtTokenUtils;
 
+    @Autowired
+    private CursorPagination cursorPagination;
+
     @Override
     @Transactional
     public UserResponseDTO createUser(UserRequestDTO dto) {
         User user = modelMapper.map(dto, User.class);
         // In production, password should be hashed using BCrypt or similar
         user.setPassword(passwordEncoder.encode(dto.getPassword()));
-        user.setRole(dto.getRole() != null ? dto.getRole() : "CUSTOMER");
+        user.setRole(dto.getRole() != null ? UserRole.valueOf(dto.getRole()) : UserRole.CUSTOMER);
         user.setActive(true);
         user.setCreated(Instant.now());
         user.setUpdated(Instant.now());
@@ -66,6 +73,13 @@ public class UserServiceImpl implements UserService {
         return userRepository.findAll(pageable);
     }
 
+    @Override
+    public CursorPageResponseDTO<User> scrollUsers(String cursor, Integer size, boolean withTotal) {
+        return cursorPagination.scrollById(cursor, size, withTotal,
+                (lastId, limit) -> userRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(limit)),
+                User::getId, userRepository::count);
+    }
+
     @Override
     @Transactional
     public UserResponseDTO updateUser(Long id, UserRequestDTO dto) {
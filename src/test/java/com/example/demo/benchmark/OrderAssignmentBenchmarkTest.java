@@ -0,0 +1,162 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.request.OrderItemRequestDTO;
+import com.example.demo.dto.request.OrderRequestDTO;
+import com.example.demo.dto.response.OrderResponseDTO;
+import com.example.demo.model.entity.Category;
+import com.example.demo.model.entity.Product;
+import com.example.demo.model.entity.User;
+import com.example.demo.model.enums.UserRole;
+import com.example.demo.repository.mysql.CategoryRepository;
+import com.example.demo.repository.mysql.ProductRepository;
+import com.example.demo.repository.mysql.UserRepository;
+import com.example.demo.service.OrderService;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures round trips and latency of order creation for growing quantities and checks that
+ * the number of statements does not grow with the quantity. The seeded user, product, accounts
+ * and orders are deleted afterwards.
+ * Needs the MySQL from compose.yaml: {@code mvn test -Dbenchmark=true -Dtest=OrderAssignmentBenchmarkTest}
+ */
+@Slf4j
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class OrderAssignmentBenchmarkTest {
+
+    private static final int[] QUANTITIES = {1, 10, 100, 1000};
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+
+    private Product product;
+
+    @AfterEach
+    void cleanUp() {
+        if (user != null) {
+            List<Long> orderIds = jdbcTemplate.queryForList("SELECT id FROM orders WHERE user_id = ?", Long.class, user.getId());
+            for (Long orderId : orderIds) {
+                jdbcTemplate.update("DELETE FROM outbox_events WHERE aggregate_id = ?", orderId);
+            }
+            // Items follow their orders through ON DELETE CASCADE
+            jdbcTemplate.update("DELETE FROM orders WHERE user_id = ?", user.getId());
+            jdbcTemplate.update("DELETE FROM order_summaries WHERE user_id = ?", user.getId());
+        }
+        if (product != null) {
+            jdbcTemplate.update("DELETE FROM accounts WHERE product_id = ?", product.getId());
+            jdbcTemplate.update("DELETE FROM products WHERE id = ?", product.getId());
+            jdbcTemplate.update("DELETE FROM categories WHERE id = ?", product.getCategory().getId());
+        }
+        if (user != null) {
+            jdbcTemplate.update("DELETE FROM users WHERE id = ?", user.getId());
+        }
+    }
+
+    @Test
+    void createOrderRoundTripsDoNotGrowWithQuantity() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        user = createUser();
+        product = createProduct();
+
+        long[] statements = new long[QUANTITIES.length];
+        log.info("quantity | statements | latency (ms)");
+        for (int i = 0; i < QUANTITIES.length; i++) {
+            int quantity = QUANTITIES[i];
+            seedAvailableAccounts(product.getId(), quantity);
+
+            OrderItemRequestDTO item = new OrderItemRequestDTO();
+            item.setProductId(product.getId());
+            item.setQuantity(quantity);
+            OrderRequestDTO request = new OrderRequestDTO(user.getId(), List.of(item), "benchmark");
+
+            statistics.clear();
+            long start = System.nanoTime();
+            OrderResponseDTO response = orderService.createOrder(request);
+            double latencyMs = (System.nanoTime() - start) / 1_000_000.0;
+
+            statements[i] = statistics.getPrepareStatementCount();
+            assertEquals(quantity, response.getOrderItems().get(0).getAccounts().size());
+            log.info(String.format("%8d | %10d | %12.2f", quantity, statements[i], latencyMs));
+        }
+        for (int i = 1; i < QUANTITIES.length; i++) {
+            assertTrue(statements[i] <= statements[0], "quantity " + QUANTITIES[i] + " prepared "
+                    + statements[i] + " statements, quantity " + QUANTITIES[0] + " prepared " + statements[0]);
+        }
+    }
+
+    private User createUser() {
+        String suffix = String.valueOf(System.nanoTime());
+        User user = new User();
+        user.setUsername("bench" + suffix.substring(suffix.length() - 8));
+        user.setEmail("bench" + suffix + "@example.com");
+        user.setPassword("benchmark");
+        user.setRole(UserRole.CUSTOMER);
+        user.setActive(true);
+        user.setCreated(Instant.now());
+        user.setUpdated(Instant.now());
+        return userRepository.save(user);
+    }
+
+    private Product createProduct() {
+        Category category = categoryRepository.save(Category.builder()
+                .name("Benchmark")
+                .created(Instant.now())
+                .build());
+        return productRepository.save(Product.builder()
+                .name("Benchmark product")
+                .price(BigDecimal.ONE)
+                .category(category)
+                .stock(0)
+                .active(true)
+                .created(Instant.now())
+                .updated(Instant.now())
+                .build());
+    }
+
+    private void seedAvailableAccounts(Long productId, int count) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{productId, "bench-user-" + i, "bench-pass-" + i});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO accounts (product_id, username, password, status) VALUES (?, ?, ?, 'AVAILABLE')", rows);
+        jdbcTemplate.update("UPDATE products SET stock = stock + ? WHERE id = ?", count, productId);
+    }
+}
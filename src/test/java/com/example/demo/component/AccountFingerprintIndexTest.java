@@ -0,0 +1,67 @@
+package com.example.demo.component;
+
+import com.example.demo.repository.mysql.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AccountFingerprintIndexTest {
+
+    @Test
+    void fingerprintDependsOnProductAndUsername() {
+        byte[] fingerprint = AccountFingerprintIndex.fingerprint(12L, "user@example.com");
+        assertEquals(AccountFingerprintIndex.FINGERPRINT_LENGTH, fingerprint.length);
+        assertArrayEquals(fingerprint, AccountFingerprintIndex.fingerprint(12L, "user@example.com"));
+        // The separator keeps "1" + "2user" apart from "12" + "user"
+        assertFalse(Arrays.equals(fingerprint, AccountFingerprintIndex.fingerprint(1L, "2user@example.com")));
+        assertFalse(Arrays.equals(fingerprint, AccountFingerprintIndex.fingerprint(13L, "user@example.com")));
+    }
+
+    @Test
+    void filterHasNoFalseNegativesAndFewFalsePositives() {
+        AccountFingerprintIndex index = new AccountFingerprintIndex(10_000, 0.01);
+        ReflectionTestUtils.setField(index, "loaded", true);
+
+        for (int i = 0; i < 10_000; i++) {
+            index.add(AccountFingerprintIndex.fingerprint(1L, "stored-" + i));
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(index.mightContain(AccountFingerprintIndex.fingerprint(1L, "stored-" + i)));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (index.mightContain(AccountFingerprintIndex.fingerprint(1L, "new-" + i))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void reloadKeepsFingerprintsOfArchivedAccounts() {
+        byte[] stored = AccountFingerprintIndex.fingerprint(1L, "stored");
+        byte[] archived = AccountFingerprintIndex.fingerprint(1L, "archived");
+        AccountRepository accountRepository = mock(AccountRepository.class);
+        when(accountRepository.findFingerprintsAfter(anyLong(), anyInt())).thenReturn(List.<Object[]>of(new Object[]{5L, stored}));
+        when(accountRepository.findArchivedFingerprintsAfter(any(), anyInt())).thenReturn(List.of(archived));
+
+        AccountFingerprintIndex index = new AccountFingerprintIndex(10_000, 0.01);
+        ReflectionTestUtils.setField(index, "accountRepository", accountRepository);
+        assertEquals(2, index.reload());
+        assertTrue(index.mightContain(stored));
+        assertTrue(index.mightContain(archived));
+        assertFalse(index.mightContain(AccountFingerprintIndex.fingerprint(1L, "new")));
+    }
+}
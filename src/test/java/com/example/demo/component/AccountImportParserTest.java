@@ -0,0 +1,41 @@
+package com.example.demo.component;
+
+import com.example.demo.dto.request.AccountRequestDTO;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccountImportParserTest {
+
+    private final AccountImportParser parser = new AccountImportParser(JsonMapper.builder().build());
+
+    @Test
+    void parsesQuotedCsvFields() {
+        AccountRequestDTO dto = parser.parse("7,\"user,1\",\"pa\"\"ss\",CONTACT", AccountImportParser.Format.CSV);
+        assertEquals(7L, dto.getProductId());
+        assertEquals("user,1", dto.getUsername());
+        assertEquals("pa\"ss", dto.getPassword());
+        assertEquals("CONTACT", dto.getStatus());
+
+        AccountRequestDTO noStatus = parser.parse("7,user,pass", AccountImportParser.Format.CSV);
+        assertNull(noStatus.getStatus());
+        assertTrue(parser.isHeader("product_id,username,password,status"));
+    }
+
+    @Test
+    void parsesNdjsonAndRejectsMalformedLines() {
+        AccountRequestDTO dto = parser.parse("{\"product_id\":3,\"username\":\"u\",\"password\":\"p\"}",
+                AccountImportParser.Format.NDJSON);
+        assertEquals(3L, dto.getProductId());
+        assertEquals("u", dto.getUsername());
+
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("x,user,pass", AccountImportParser.Format.CSV));
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("7,user", AccountImportParser.Format.CSV));
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("7,\"user,pass", AccountImportParser.Format.CSV));
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("{\"product_id\":", AccountImportParser.Format.NDJSON));
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.demo.component;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AvailabilityCacheTest {
+
+    private final AvailabilityCache cache = new AvailabilityCache();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cache, "ttlMs", 60_000L);
+        ReflectionTestUtils.setField(cache, "cacheSize", 100L);
+        cache.init();
+    }
+
+    @Test
+    void missingProductsCountZero() {
+        assertEquals(Map.of(1L, 5L, 2L, 0L), cache.getAll(List.of(1L, 2L), ids -> Map.of(1L, 5L)));
+        assertEquals(0L, cache.getIfPresent(2L));
+    }
+
+    @Test
+    void loadOvertakenByInvalidationIsNotCached() {
+        // A sale commits while the old count is being read
+        Map<Long, Long> stale = cache.getAll(List.of(1L, 2L), ids -> {
+            cache.invalidateAfterCommit(1L);
+            return Map.of(1L, 5L, 2L, 3L);
+        });
+        assertEquals(5L, stale.get(1L));
+        assertNull(cache.getIfPresent(1L));
+        // Loads that nothing overtook stay cached
+        assertEquals(3L, cache.getIfPresent(2L));
+    }
+}
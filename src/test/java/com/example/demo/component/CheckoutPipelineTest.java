@@ -0,0 +1,93 @@
+package com.example.demo.component;
+
+import com.example.demo.dto.request.OrderRequestDTO;
+import com.example.demo.dto.response.OrderResponseDTO;
+import com.example.demo.repository.mysql.OrderRepository;
+import com.example.demo.service.OrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CheckoutPipelineTest {
+
+    private final OrderService orderService = mock(OrderService.class);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+
+    private final CheckoutPipeline pipeline = new CheckoutPipeline();
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(pipeline, "orderService", orderService);
+        ReflectionTestUtils.setField(pipeline, "orderRepository", orderRepository);
+        ReflectionTestUtils.setField(pipeline, "enabled", true);
+        ReflectionTestUtils.setField(pipeline, "queueCapacity", 1);
+        ReflectionTestUtils.setField(pipeline, "workers", 1);
+        ReflectionTestUtils.setField(pipeline, "batchSize", 1);
+        ReflectionTestUtils.setField(pipeline, "rejectionPolicy", CheckoutPipeline.RejectionPolicy.CALLER_RUNS);
+        ReflectionTestUtils.setField(pipeline, "maxAttempts", 5);
+        ReflectionTestUtils.setField(pipeline, "retryBackoffMs", 10L);
+
+        when(orderService.createOrderIntent(any())).thenReturn(intent(1L), intent(2L), intent(3L));
+        when(orderService.fulfillOrder(anyLong())).thenAnswer(invocation -> {
+            Long id = invocation.getArgument(0);
+            if (id == 1L) {
+                // Keeps the only worker busy so the queue stays full
+                started.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            return OrderResponseDTO.builder().id(id).status("COMPLETED").build();
+        });
+        pipeline.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.stop();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void intentCommittedWhileTheQueueIsFullIsFulfilledLater() throws Exception {
+        OrderRequestDTO dto = new OrderRequestDTO(1L, List.of(), null);
+        pipeline.submit(dto);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        pipeline.submit(dto);
+
+        // Submitted in the caller's transaction; the queue is full when it commits
+        TransactionSynchronizationManager.initSynchronization();
+        assertEquals("PROCESSING", pipeline.submit(dto).getStatus());
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+
+        release.countDown();
+        verify(orderService, timeout(5_000)).fulfillOrder(3L);
+        assertEquals(0L, pipeline.metrics().get("caller_runs"));
+    }
+
+    private static OrderResponseDTO intent(Long id) {
+        return OrderResponseDTO.builder().id(id).status("PROCESSING").build();
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.demo.component;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ClaimBufferTest {
+
+    @Test
+    void ringIsFifoAndWrapsAround() {
+        ClaimBuffer.Ring ring = new ClaimBuffer.Ring(4, 1);
+        assertEquals(4, ring.offer(List.of(10L, 9L, 8L, 7L, 6L)));
+        assertEquals(List.of(10L, 9L, 8L), ring.poll(3));
+        assertEquals(3, ring.free());
+
+        assertEquals(2, ring.offer(List.of(5L, 4L)));
+        assertEquals(List.of(7L, 5L, 4L), ring.poll(10));
+        assertEquals(0, ring.size());
+    }
+
+    @Test
+    void ringSkipsBufferedIds() {
+        ClaimBuffer.Ring ring = new ClaimBuffer.Ring(8, 2);
+        ring.offer(List.of(3L, 2L));
+        assertEquals(1, ring.offer(List.of(3L, 1L)));
+        assertEquals(List.of(3L, 2L, 1L), ring.poll(3));
+
+        // Claimed IDs may be buffered again, e.g. after a cancellation releases them
+        assertEquals(1, ring.offer(List.of(3L)));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.demo.component;
+
+import com.example.demo.dto.response.CursorPageResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CursorPaginationTest {
+
+    private CursorPagination pagination;
+
+    @BeforeEach
+    void setUp() {
+        pagination = new CursorPagination();
+        ReflectionTestUtils.setField(pagination, "defaultSize", 20);
+        ReflectionTestUtils.setField(pagination, "maxSize", 100);
+    }
+
+    @Test
+    void cursorRoundTrips() {
+        String cursor = pagination.encode("2026-01-01T10:00:00Z", 42);
+        CursorPagination.Cursor decoded = pagination.decode(cursor);
+        assertEquals("2026-01-01T10:00:00Z", decoded.sortKey());
+        assertEquals(42, decoded.id());
+        assertNull(pagination.decode(""));
+        assertThrows(IllegalArgumentException.class, () -> pagination.decode("not a cursor"));
+    }
+
+    @Test
+    void sizeIsCapped() {
+        assertEquals(20, pagination.capSize(null));
+        assertEquals(20, pagination.capSize(0));
+        assertEquals(100, pagination.capSize(10_000));
+    }
+
+    @Test
+    void scrollWalksAllRowsOnce() {
+        List<Long> table = new ArrayList<>();
+        for (long id = 1; id <= 25; id++) {
+            table.add(id);
+        }
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        CursorPageResponseDTO<Long> page;
+        do {
+            page = pagination.scrollById(cursor, 10, false,
+                    (lastId, limit) -> table.stream().filter(id -> id > lastId).limit(limit).toList(),
+                    id -> id, table::size);
+            seen.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (page.isHasMore());
+
+        assertEquals(table, seen);
+        assertFalse(page.isHasMore());
+        assertNull(page.getTotal());
+        CursorPageResponseDTO<Long> counted = pagination.scrollById(null, 10, true,
+                (lastId, limit) -> List.<Long>of(), id -> id, () -> 7);
+        assertEquals(7L, counted.getTotal());
+    }
+}
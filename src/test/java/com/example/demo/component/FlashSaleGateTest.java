@@ -0,0 +1,84 @@
+package com.example.demo.component;
+
+import com.example.demo.dto.request.OrderItemRequestDTO;
+import com.example.demo.dto.request.OrderRequestDTO;
+import com.example.demo.exception.ConflictException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlashSaleGateTest {
+
+    private final FlashSaleGate gate = new FlashSaleGate();
+
+    @Test
+    void admitsUpToTheTokensAndGivesThemBackOnRelease() {
+        gate.arm(1L, 3, 0);
+        FlashSaleGate.Admission first = gate.admit(order(1L, 2));
+        assertThrows(ConflictException.class, () -> gate.admit(order(1L, 2)));
+        assertEquals(1, tokensLeft(1L));
+
+        first.release();
+        assertEquals(3, tokensLeft(1L));
+        assertEquals(0L, gate.stats().get(1L).get("admitted"));
+        assertEquals(1L, gate.stats().get(1L).get("rejected"));
+        // Products that are not armed are never held back
+        assertNotNull(gate.admit(order(2L, 100)));
+    }
+
+    @Test
+    void failedProductReleasesTokensAlreadyTakenForTheOrder() {
+        gate.arm(1L, 5, 0);
+        gate.arm(2L, 1, 0);
+        assertThrows(ConflictException.class, () -> gate.admit(order(1L, 2, 2L, 2)));
+        assertEquals(5, tokensLeft(1L));
+        assertEquals(1, tokensLeft(2L));
+    }
+
+    @Test
+    void restockWakesQueuedBuyer() throws Exception {
+        gate.arm(1L, 2, 5_000);
+        gate.admit(order(1L, 1));
+
+        // One token left: a buyer of two waits for a returned unit
+        CompletableFuture<FlashSaleGate.Admission> queued = CompletableFuture.supplyAsync(() -> gate.admit(order(1L, 2)));
+        long deadline = System.currentTimeMillis() + 5_000;
+        while ((Integer) gate.stats().get(1L).get("queued") == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(queued.isDone());
+
+        gate.restock(1L, 1);
+        assertNotNull(queued.get(5, TimeUnit.SECONDS));
+        assertEquals(0, tokensLeft(1L));
+        // Sold out: rejected at once instead of queueing
+        long start = System.nanoTime();
+        assertThrows(ConflictException.class, () -> gate.admit(order(1L, 1)));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private int tokensLeft(Long productId) {
+        return (Integer) gate.stats().get(productId).get("tokens_left");
+    }
+
+    private static OrderRequestDTO order(Object... productsAndQuantities) {
+        List<OrderItemRequestDTO> items = new ArrayList<>();
+        for (int i = 0; i < productsAndQuantities.length; i += 2) {
+            OrderItemRequestDTO item = new OrderItemRequestDTO();
+            item.setProductId((Long) productsAndQuantities[i]);
+            item.setQuantity((Integer) productsAndQuantities[i + 1]);
+            items.add(item);
+        }
+        return new OrderRequestDTO(1L, items, null);
+    }
+}
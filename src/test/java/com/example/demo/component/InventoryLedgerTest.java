@@ -0,0 +1,90 @@
+package com.example.demo.component;
+
+import com.example.demo.model.enums.AccountStatus;
+import com.example.demo.repository.mysql.AccountRepository;
+import com.example.demo.scheduler.InventoryReconciler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InventoryLedgerTest {
+
+    private final AccountRepository accountRepository = mock(AccountRepository.class);
+
+    private final InventoryLedger ledger = new InventoryLedger();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(ledger, "accountRepository", accountRepository);
+        ReflectionTestUtils.setField(ledger, "stockWatermarkMonitor", new StockWatermarkMonitor(null, List.of(), 5, 10));
+        ReflectionTestUtils.setField(ledger, "recountIntervalMs", 60_000L);
+        when(accountRepository.countAvailableGroupByProduct()).thenReturn(List.<Object[]>of(new Object[]{1L, 3L}));
+        ledger.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void rolledBackReservationIsGivenBack() {
+        TransactionSynchronizationManager.initSynchronization();
+        assertTrue(ledger.tryReserve(1L, 2));
+        assertEquals(1L, ledger.getAvailable(1L));
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        assertEquals(3L, ledger.getAvailable(1L));
+    }
+
+    @Test
+    void recountsDatabaseBeforeRejecting() {
+        // Stock added on another node
+        when(accountRepository.countByProductIdAndStatus(1L, AccountStatus.AVAILABLE)).thenReturn(10L);
+
+        assertTrue(ledger.tryReserve(1L, 5));
+        assertEquals(5L, ledger.getAvailable(1L));
+        // Unknown products are left to the database claim
+        assertTrue(ledger.tryReserve(2L, 100));
+    }
+
+    @Test
+    void recountIsThrottledPerProduct() {
+        when(accountRepository.countByProductIdAndStatus(1L, AccountStatus.AVAILABLE)).thenReturn(3L);
+
+        assertFalse(ledger.tryReserve(1L, 5));
+        assertFalse(ledger.tryReserve(1L, 5));
+        verify(accountRepository, times(1)).countByProductIdAndStatus(1L, AccountStatus.AVAILABLE);
+    }
+
+    @Test
+    void reconcilerCorrectsDrift() {
+        InventoryReconciler reconciler = new InventoryReconciler();
+        ReflectionTestUtils.setField(reconciler, "inventoryLedger", ledger);
+        ReflectionTestUtils.setField(reconciler, "accountRepository", accountRepository);
+        when(accountRepository.countAvailableGroupByProduct()).thenReturn(List.<Object[]>of(new Object[]{1L, 8L}));
+
+        assertEquals(1, reconciler.reconcile().size());
+        assertEquals(8L, ledger.getAvailable(1L));
+        // A counter that moved since the snapshot is left for the next run
+        assertFalse(ledger.correct(1L, 3L, 20L));
+        assertEquals(8L, ledger.getAvailable(1L));
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.demo.component;
+
+import com.example.demo.dto.response.AccountResponseDTO;
+import com.example.demo.dto.response.OrderItemResponseDTO;
+import com.example.demo.dto.response.OrderResponseDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderArchiveTest {
+
+    @TempDir
+    Path dir;
+
+    private OrderArchive newArchive() {
+        OrderArchive archive = new OrderArchive();
+        ReflectionTestUtils.setField(archive, "jsonMapper", JsonMapper.builder().build());
+        ReflectionTestUtils.setField(archive, "archiveDir", dir.toString());
+        archive.loadIndex();
+        return archive;
+    }
+
+    private OrderResponseDTO order(long id, long userId, String created) {
+        AccountResponseDTO account = AccountResponseDTO.builder().id(id * 10).username("user" + id).status("SOLD").build();
+        OrderItemResponseDTO item = OrderItemResponseDTO.builder().id(id * 100).quantity(1)
+                .unitPrice(BigDecimal.TEN).totalPrice(BigDecimal.TEN).accounts(List.of(account)).build();
+        return OrderResponseDTO.builder().id(id).orderCode("CODE" + id).userId(userId).status("COMPLETED")
+                .totalAmount(BigDecimal.TEN).created(Instant.parse(created)).orderItems(List.of(item)).build();
+    }
+
+    @Test
+    void appendedOrdersAreReadBackAcrossBatchesAndRestarts() {
+        OrderArchive archive = newArchive();
+        archive.append(List.of(order(1, 7, "2025-01-01T10:00:00Z"), order(2, 8, "2025-01-02T10:00:00Z")));
+        archive.append(List.of(order(3, 7, "2025-01-01T12:00:00Z")));
+
+        OrderArchive reloaded = newArchive();
+        assertEquals(3, reloaded.size());
+        assertEquals("CODE3", reloaded.find(3L).orElseThrow().getOrderCode());
+        assertEquals("user1", reloaded.find(1L).orElseThrow().getOrderItems().get(0).getAccounts().get(0).getUsername());
+        assertEquals(2, reloaded.findByUserId(7L).size());
+        assertTrue(Files.exists(dir.resolve("orders/2025/2025-01-01.ndjson.gz")));
+    }
+
+    @Test
+    void tornIndexLineIsIgnored() throws Exception {
+        OrderArchive archive = newArchive();
+        archive.append(List.of(order(1, 7, "2025-01-01T10:00:00Z")));
+        Files.write(dir.resolve("index.tsv"), "2\tCODE2".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        OrderArchive reloaded = newArchive();
+        assertTrue(reloaded.contains(1L));
+        assertFalse(reloaded.contains(2L));
+
+        reloaded.append(List.of(order(4, 7, "2025-01-03T10:00:00Z")));
+        assertTrue(newArchive().find(4L).isPresent());
+    }
+}
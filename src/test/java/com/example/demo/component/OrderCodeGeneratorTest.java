@@ -0,0 +1,82 @@
+package com.example.demo.component;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderCodeGeneratorTest {
+
+    private static final int THREADS = 8;
+    private static final int CODES_PER_THREAD = 500_000;
+
+    @Test
+    void concurrentIdsAreUnique() throws InterruptedException {
+        OrderCodeGenerator generator = new OrderCodeGenerator(1);
+        long[][] ids = new long[THREADS][CODES_PER_THREAD];
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            long[] target = ids[t];
+            threads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < CODES_PER_THREAD; i++) {
+                    target[i] = generator.nextId();
+                }
+            });
+            threads[t].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        long[] all = new long[THREADS * CODES_PER_THREAD];
+        for (int t = 0; t < THREADS; t++) {
+            // Each thread sees strictly increasing ids
+            for (int i = 1; i < CODES_PER_THREAD; i++) {
+                assertTrue(ids[t][i] > ids[t][i - 1]);
+            }
+            System.arraycopy(ids[t], 0, all, t * CODES_PER_THREAD, CODES_PER_THREAD);
+        }
+        Arrays.sort(all);
+        for (int i = 1; i < all.length; i++) {
+            assertNotEquals(all[i - 1], all[i], "duplicate id " + all[i]);
+        }
+    }
+
+    @Test
+    void codesAreFixedWidthAndSortable() {
+        OrderCodeGenerator generator = new OrderCodeGenerator(1023);
+        String previous = generator.nextCode();
+        for (int i = 0; i < 10_000; i++) {
+            String code = generator.nextCode();
+            assertEquals(OrderCodeGenerator.CODE_LENGTH, code.length());
+            assertTrue(code.matches("[0-9A-Z]+"));
+            assertTrue(code.compareTo(previous) > 0);
+            previous = code;
+        }
+    }
+
+    @Test
+    void nodesNeverShareCodes() {
+        OrderCodeGenerator first = new OrderCodeGenerator(1);
+        OrderCodeGenerator second = new OrderCodeGenerator(2);
+        Set<String> codes = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(codes.add(first.nextCode()));
+            assertTrue(codes.add(second.nextCode()));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.demo.component;
+
+import com.example.demo.model.enums.UserRole;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void burstThenRefillAtConfiguredRate() {
+        // 5 tokens, one every 2 seconds
+        OrderRateLimiter limiter = new OrderRateLimiter(true, 1000, 5, 30, 100, 600);
+        long now = 1_000 * SECOND;
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire(1L, UserRole.CUSTOMER, now));
+        }
+        long wait = limiter.tryAcquire(1L, UserRole.CUSTOMER, now);
+        assertEquals(2 * SECOND, wait);
+
+        assertTrue(limiter.tryAcquire(1L, UserRole.CUSTOMER, now + SECOND) > 0);
+        assertEquals(0, limiter.tryAcquire(1L, UserRole.CUSTOMER, now + 2 * SECOND));
+        assertTrue(limiter.tryAcquire(1L, UserRole.CUSTOMER, now + 2 * SECOND) > 0);
+    }
+
+    @Test
+    void usersAndRolesHaveSeparateBuckets() {
+        OrderRateLimiter limiter = new OrderRateLimiter(true, 1000, 1, 1, 3, 1);
+        long now = 1_000 * SECOND;
+        assertEquals(0, limiter.tryAcquire(1L, UserRole.CUSTOMER, now));
+        assertTrue(limiter.tryAcquire(1L, UserRole.CUSTOMER, now) > 0);
+        assertEquals(0, limiter.tryAcquire(2L, UserRole.CUSTOMER, now));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire(3L, UserRole.ADMIN, now));
+        }
+        assertTrue(limiter.tryAcquire(3L, UserRole.ADMIN, now) > 0);
+        assertEquals(2L, limiter.stats().get("rejected"));
+    }
+}
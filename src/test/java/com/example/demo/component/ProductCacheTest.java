@@ -0,0 +1,86 @@
+package com.example.demo.component;
+
+import com.example.demo.dto.response.ProductResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class ProductCacheTest {
+
+    private final ProductCache cache = new ProductCache();
+    private final List<Set<Long>> loads = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 60L);
+        cache.init();
+    }
+
+    private Map<Long, ProductResponseDTO> load(Set<Long> ids) {
+        loads.add(ids);
+        Map<Long, ProductResponseDTO> found = new HashMap<>();
+        for (Long id : ids) {
+            if (id < 100) {
+                found.put(id, ProductResponseDTO.builder().id(id).name("Product " + id).build());
+            }
+        }
+        return found;
+    }
+
+    @Test
+    void loadsOnlyMissesInOneBatch() {
+        cache.getAll(List.of(1L, 2L), this::load);
+        Map<Long, ProductResponseDTO> products = cache.getAll(List.of(1L, 2L, 3L, 404L), this::load);
+
+        assertEquals(List.of(Set.of(1L, 2L), Set.of(3L, 404L)), loads);
+        assertEquals(Set.of(1L, 2L, 3L), products.keySet());
+        // Unknown products are not cached and are looked up again
+        cache.getAll(List.of(404L), this::load);
+        assertEquals(Set.of(404L), loads.get(2));
+    }
+
+    @Test
+    void invalidationOutsideTransactionIsImmediate() {
+        cache.getAll(List.of(1L), this::load);
+        cache.invalidateAfterCommit(1L);
+        cache.getAll(List.of(1L), this::load);
+        assertEquals(2, loads.size());
+
+        cache.invalidateAllAfterCommit();
+        assertFalse(cache.getAll(List.of(1L), this::load).isEmpty());
+        assertEquals(3, loads.size());
+    }
+
+    @Test
+    void loadOvertakenByInvalidationIsNotCached() {
+        // The product changes and is invalidated while the stale row is being mapped
+        cache.getAll(List.of(1L), ids -> {
+            Map<Long, ProductResponseDTO> stale = load(ids);
+            cache.invalidateAfterCommit(1L);
+            return stale;
+        });
+        cache.getAll(List.of(1L), this::load);
+        assertEquals(2, loads.size());
+
+        cache.getAll(List.of(2L), ids -> {
+            Map<Long, ProductResponseDTO> stale = load(ids);
+            cache.invalidateAllAfterCommit();
+            return stale;
+        });
+        cache.getAll(List.of(2L), this::load);
+        assertEquals(4, loads.size());
+        // Loads that nothing overtook stay cached
+        cache.getAll(List.of(2L), this::load);
+        assertEquals(4, loads.size());
+    }
+}
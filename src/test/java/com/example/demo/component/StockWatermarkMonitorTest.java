@@ -0,0 +1,37 @@
+package com.example.demo.component;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StockWatermarkMonitorTest {
+
+    private final StockWatermarkMonitor monitor = new StockWatermarkMonitor(null, List.of(), 5, 10);
+
+    @Test
+    void alertsOncePerCrossingWithHysteresis() {
+        assertNull(monitor.evaluate(1L, 20));
+        assertEquals(StockWatermarkMonitor.AlertType.LOW_STOCK, monitor.evaluate(1L, 5).type());
+        assertNull(monitor.evaluate(1L, 3));
+        // Between the watermarks the product stays low
+        assertNull(monitor.evaluate(1L, 9));
+        assertEquals(9L, monitor.getLowStockProducts().get(0).get("available"));
+
+        assertEquals(StockWatermarkMonitor.AlertType.STOCK_RECOVERED, monitor.evaluate(1L, 10).type());
+        assertTrue(monitor.getLowStockProducts().isEmpty());
+        assertNull(monitor.evaluate(1L, 6));
+    }
+
+    @Test
+    void rebuildChecksEveryCountAndIgnoresUnknownCounts() {
+        monitor.evaluateAll(Map.of(1L, 0L, 2L, 50L));
+        assertNull(monitor.evaluate(3L, -1));
+        assertEquals(1, monitor.getLowStockProducts().size());
+        assertEquals(1L, monitor.getLowStockProducts().get(0).get("product_id"));
+    }
+}
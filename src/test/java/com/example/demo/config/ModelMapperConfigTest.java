@@ -0,0 +1,75 @@
+package com.example.demo.config;
+
+import com.example.demo.dto.response.AccountResponseDTO;
+import com.example.demo.dto.response.OrderItemResponseDTO;
+import com.example.demo.dto.response.OrderResponseDTO;
+import com.example.demo.model.entity.Account;
+import com.example.demo.model.entity.Order;
+import com.example.demo.model.entity.OrderItem;
+import com.example.demo.model.entity.Product;
+import com.example.demo.model.enums.AccountStatus;
+import com.example.demo.model.enums.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ModelMapperConfigTest {
+
+    private final ModelMapper modelMapper = new ModelMapperConfig().modelMapper();
+
+    private Order order(OrderStatus status, AccountStatus accountStatus) {
+        Product product = new Product();
+        product.setId(1L);
+        product.setName("Game");
+
+        Order order = new Order();
+        order.setId(10L);
+        order.setStatus(status);
+        order.setTotalAmount(BigDecimal.TEN);
+
+        OrderItem item = new OrderItem();
+        item.setId(100L);
+        item.setOrder(order);
+        item.setProduct(product);
+        item.setQuantity(1);
+
+        Account account = new Account();
+        account.setId(1000L);
+        account.setProduct(product);
+        account.setUsername("player");
+        account.setPassword("secret");
+        account.setStatus(accountStatus);
+        account.setOrderItem(item);
+
+        item.setAccounts(new ArrayList<>(List.of(account)));
+        order.setOrderItems(new ArrayList<>(List.of(item)));
+        return order;
+    }
+
+    @Test
+    void pendingOrderHidesReservedCredentials() {
+        OrderResponseDTO response = modelMapper.map(order(OrderStatus.PENDING, AccountStatus.RESERVED), OrderResponseDTO.class);
+        AccountResponseDTO account = response.getOrderItems().get(0).getAccounts().get(0);
+        assertEquals(1000L, account.getId());
+        assertNull(account.getUsername());
+        assertNull(account.getPassword());
+
+        OrderItem item = order(OrderStatus.PENDING, AccountStatus.RESERVED).getOrderItems().get(0);
+        AccountResponseDTO itemAccount = modelMapper.map(item, OrderItemResponseDTO.class).getAccounts().get(0);
+        assertNull(itemAccount.getPassword());
+    }
+
+    @Test
+    void completedOrderDeliversCredentials() {
+        OrderResponseDTO response = modelMapper.map(order(OrderStatus.COMPLETED, AccountStatus.SOLD), OrderResponseDTO.class);
+        AccountResponseDTO account = response.getOrderItems().get(0).getAccounts().get(0);
+        assertEquals("player", account.getUsername());
+        assertEquals("secret", account.getPassword());
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.demo.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks with EXPLAIN that the hot inventory queries use the V9 indexes.
+ * Needs the MySQL from compose.yaml with migrations applied: {@code mvn test -Dmysql=true -Dtest=InventoryIndexExplainTest}
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@EnabledIfSystemProperty(named = "mysql", matches = "true")
+class InventoryIndexExplainTest {
+
+    private static final String PRODUCT_STATUS_INDEX = "idx_accounts_product_status_id";
+    private static final String ORDER_ITEM_INDEX = "idx_accounts_order_item";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void claimUsesProductStatusIndexWithoutFilesort() {
+        // AccountRepository.lockAvailableAccountIds without its locking clause
+        Map<String, Object> plan = explain("""
+            SELECT a.id FROM accounts a
+            WHERE a.product_id = 1
+            AND a.status = 'AVAILABLE'
+            ORDER BY a.id
+            LIMIT 10
+        """, "a");
+        assertEquals(PRODUCT_STATUS_INDEX, plan.get("key"));
+        assertFalse(extra(plan).contains("Using filesort"), "filesort: " + plan);
+        assertTrue(extra(plan).contains("Using index"), "not covering: " + plan);
+    }
+
+    @Test
+    void availableCountUsesCoveringIndex() {
+        // AccountRepository.countByProductIdAndStatus
+        Map<String, Object> plan = explain(
+                "SELECT COUNT(*) FROM accounts a WHERE a.product_id = 1 AND a.status = 'AVAILABLE'", "a");
+        assertEquals(PRODUCT_STATUS_INDEX, plan.get("key"));
+        assertTrue(extra(plan).contains("Using index"), "not covering: " + plan);
+    }
+
+    @Test
+    void stockDriftScanUsesProductStatusIndex() {
+        // ProductRepository.findStockDrift inner aggregate
+        Map<String, Object> plan = explain("""
+            SELECT product_id, COUNT(*) FROM accounts a
+            WHERE a.status = 'AVAILABLE' AND a.product_id BETWEEN 1 AND 1000
+            GROUP BY product_id
+        """, "a");
+        assertEquals(PRODUCT_STATUS_INDEX, plan.get("key"));
+    }
+
+    @Test
+    void orderAccountJoinsUseOrderItemIndex() {
+        // AccountRepository.countHeldByProduct / releaseOrderAccounts
+        Map<String, Object> plan = explain("""
+            SELECT a.product_id, COUNT(*) FROM accounts a
+            JOIN order_items oi ON oi.id = a.order_item_id
+            WHERE oi.order_id IN (1, 2, 3)
+            AND a.status IN ('RESERVED', 'SOLD')
+            GROUP BY a.product_id
+        """, "a");
+        assertEquals(ORDER_ITEM_INDEX, plan.get("key"));
+    }
+
+    private Map<String, Object> explain(String sql, String table) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("EXPLAIN " + sql);
+        return rows.stream()
+                .filter(row -> table.equals(row.get("table")))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No plan row for " + table + ": " + rows));
+    }
+
+    private String extra(Map<String, Object> plan) {
+        return String.valueOf(plan.get("Extra"));
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.demo.service;
+
+import com.example.demo.component.InProcessOutboxSink;
+import com.example.demo.model.entity.Order;
+import com.example.demo.model.entity.OutboxEvent;
+import com.example.demo.model.enums.OrderStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that outbox events commit and roll back with the caller's transaction, are retried
+ * with backoff after a sink failure and are marked sent once every sink accepted them.
+ * Needs the MySQL from compose.yaml with migrations applied: {@code mvn test -Dmysql=true -Dtest=OutboxServiceTest}
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "app.outbox.enabled=false",
+        "app.outbox.retry-base-ms=60000"
+})
+@EnabledIfSystemProperty(named = "mysql", matches = "true")
+class OutboxServiceTest {
+
+    // Not an order ID, so the test never touches real events
+    private static final long AGGREGATE_ID = -System.nanoTime();
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private InProcessOutboxSink inProcessOutboxSink;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<OutboxEvent> received = new CopyOnWriteArrayList<>();
+
+    private Consumer<OutboxEvent> listener;
+
+    @AfterEach
+    void tearDown() {
+        if (listener != null) {
+            inProcessOutboxSink.removeListener(listener);
+        }
+        jdbcTemplate.update("DELETE FROM outbox_events WHERE aggregate_id = ?", AGGREGATE_ID);
+    }
+
+    @Test
+    void eventIsWrittenInTheCallersTransaction() {
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxService.recordOrderEvent("ORDER_CREATED", order(), null);
+            status.setRollbackOnly();
+        });
+        assertEquals(0, countEvents());
+
+        transactionTemplate.executeWithoutResult(status ->
+                outboxService.recordOrderEvent("ORDER_CREATED", order(), null));
+        assertEquals(1, countEvents());
+    }
+
+    @Test
+    void failedPublishIsRetriedWithBackoffThenMarkedSent() {
+        transactionTemplate.executeWithoutResult(status ->
+                outboxService.recordOrderEvent("ORDER_CREATED", order(), null));
+
+        listener = event -> {
+            if (event.getAggregateId() == AGGREGATE_ID) {
+                throw new IllegalStateException("sink down");
+            }
+        };
+        inProcessOutboxSink.addListener(listener);
+        assertTrue(dispatchUntilFailed());
+
+        Map<String, Object> failed = event();
+        assertNull(failed.get("sent"));
+        assertEquals(1, ((Number) failed.get("attempts")).intValue());
+        assertTrue(((String) failed.get("last_error")).startsWith("in-process"));
+        // retry-base-ms is a minute, so the event is not due yet
+        assertTrue(((Timestamp) failed.get("next_attempt")).toInstant().isAfter(Instant.now().plusSeconds(30)));
+
+        inProcessOutboxSink.removeListener(listener);
+        listener = received::add;
+        inProcessOutboxSink.addListener(listener);
+        dispatchAll();
+        assertTrue(received.stream().noneMatch(event -> event.getAggregateId() == AGGREGATE_ID));
+
+        jdbcTemplate.update("UPDATE outbox_events SET next_attempt = NOW(3) - INTERVAL 1 SECOND WHERE aggregate_id = ?", AGGREGATE_ID);
+        dispatchAll();
+        assertEquals(1, received.stream().filter(event -> event.getAggregateId() == AGGREGATE_ID).count());
+        assertNotNull(event().get("sent"));
+    }
+
+    private Order order() {
+        Order order = new Order();
+        order.setId(AGGREGATE_ID);
+        order.setOrderCode("OUTBOXTEST");
+        order.setStatus(OrderStatus.PROCESSING);
+        order.setTotalAmount(BigDecimal.TEN);
+        return order;
+    }
+
+    private int countEvents() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM outbox_events WHERE aggregate_id = ?", Integer.class, AGGREGATE_ID);
+        return count != null ? count : 0;
+    }
+
+    private Map<String, Object> event() {
+        return jdbcTemplate.queryForMap("SELECT * FROM outbox_events WHERE aggregate_id = ?", AGGREGATE_ID);
+    }
+
+    private boolean dispatchUntilFailed() {
+        for (int batch = 0; batch < 1000; batch++) {
+            OutboxService.DispatchResult result = outboxService.dispatchBatch(200);
+            if (result.isFailed()) {
+                return true;
+            }
+            if (result.getPublished() == 0) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private void dispatchAll() {
+        for (int batch = 0; batch < 1000; batch++) {
+            OutboxService.DispatchResult result = outboxService.dispatchBatch(200);
+            if (result.isFailed() || result.getPublished() == 0) {
+                return;
+            }
+        }
+    }
+}
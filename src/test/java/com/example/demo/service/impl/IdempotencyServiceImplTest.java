@@ -0,0 +1,122 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.dto.response.OrderResponseDTO;
+import com.example.demo.model.entity.IdempotencyKey;
+import com.example.demo.model.entity.IdempotencyKeyId;
+import com.example.demo.repository.mysql.IdempotencyKeyRepository;
+import com.example.demo.service.IdempotencyService.IdempotentResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyServiceImplTest {
+
+    private final IdempotencyKeyRepository repository = mock(IdempotencyKeyRepository.class);
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    private final IdempotencyServiceImpl service = new IdempotencyServiceImpl();
+
+    private final AtomicInteger created = new AtomicInteger();
+
+    private final Supplier<OrderResponseDTO> createOrder =
+            () -> OrderResponseDTO.builder().id((long) created.incrementAndGet()).status("PENDING").build();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "idempotencyKeyRepository", repository);
+        ReflectionTestUtils.setField(service, "jsonMapper", jsonMapper);
+        ReflectionTestUtils.setField(service, "transactionTemplate", new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(service, "ttlHours", 24L);
+        ReflectionTestUtils.setField(service, "cacheSize", 100L);
+        ReflectionTestUtils.setField(service, "waitTimeoutMs", 5_000L);
+        service.init();
+    }
+
+    @Test
+    void replayReturnsStoredResponseAndKeysArePerUser() {
+        IdempotentResult first = service.createOrderOnce("k1", 1L, createOrder);
+        IdempotentResult replay = service.createOrderOnce("k1", 1L, createOrder);
+        assertFalse(first.isReplayed());
+        assertTrue(replay.isReplayed());
+        assertEquals(first.getResponse().getId(), replay.getResponse().getId());
+        verify(repository).completeKey(eq("k1"), eq(1L), eq(1L), any());
+
+        // The same key of another user is a different request
+        IdempotentResult other = service.createOrderOnce("k1", 2L, createOrder);
+        assertFalse(other.isReplayed());
+        assertNotEquals(first.getResponse().getId(), other.getResponse().getId());
+        assertEquals(2, created.get());
+    }
+
+    @Test
+    void concurrentDuplicatesWaitForTheFirstRequest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<OrderResponseDTO> slowCreate = () -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return createOrder.get();
+        };
+
+        CompletableFuture<IdempotentResult> first = CompletableFuture.supplyAsync(() -> service.createOrderOnce("k1", 1L, slowCreate));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<IdempotentResult> duplicate = CompletableFuture.supplyAsync(() -> service.createOrderOnce("k1", 1L, slowCreate));
+        release.countDown();
+
+        assertFalse(first.get(5, TimeUnit.SECONDS).isReplayed());
+        assertTrue(duplicate.get(5, TimeUnit.SECONDS).isReplayed());
+        assertEquals(1L, duplicate.get().getResponse().getId());
+        assertEquals(1, created.get());
+    }
+
+    @Test
+    void keyCommittedOnAnotherNodeIsReplayedFromTheTable() {
+        IdempotencyKey stored = new IdempotencyKey();
+        stored.setUserId(1L);
+        stored.setKey("k1");
+        stored.setResponse(jsonMapper.writeValueAsString(OrderResponseDTO.builder().id(42L).status("PENDING").build()));
+        doThrow(new DataIntegrityViolationException("duplicate")).when(repository).insertKey(eq("k1"), eq(1L), any());
+        when(repository.findById(new IdempotencyKeyId(1L, "k1"))).thenReturn(Optional.of(stored));
+
+        IdempotentResult result = service.createOrderOnce("k1", 1L, createOrder);
+        assertTrue(result.isReplayed());
+        assertEquals(42L, result.getResponse().getId());
+        assertEquals(0, created.get());
+    }
+
+    @Test
+    void failedRequestCanBeRetried() {
+        assertThrows(IllegalArgumentException.class, () -> service.createOrderOnce("k1", 1L, () -> {
+            throw new IllegalArgumentException("Insufficient available accounts");
+        }));
+        assertFalse(service.createOrderOnce("k1", 1L, createOrder).isReplayed());
+    }
+}
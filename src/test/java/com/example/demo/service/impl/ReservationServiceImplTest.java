@@ -0,0 +1,89 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.model.entity.Order;
+import com.example.demo.model.enums.OrderStatus;
+import com.example.demo.repository.mysql.AccountRepository;
+import com.example.demo.repository.mysql.OrderRepository;
+import com.example.demo.service.OrderSummaryService;
+import com.example.demo.service.OutboxService;
+import com.example.demo.service.StockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ReservationServiceImplTest {
+
+    private final AccountRepository accountRepository = mock(AccountRepository.class);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final StockService stockService = mock(StockService.class);
+    private final OrderSummaryService orderSummaryService = mock(OrderSummaryService.class);
+    private final OutboxService outboxService = mock(OutboxService.class);
+
+    private final ReservationServiceImpl service = new ReservationServiceImpl();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "accountRepository", accountRepository);
+        ReflectionTestUtils.setField(service, "orderRepository", orderRepository);
+        ReflectionTestUtils.setField(service, "stockService", stockService);
+        ReflectionTestUtils.setField(service, "orderSummaryService", orderSummaryService);
+        ReflectionTestUtils.setField(service, "outboxService", outboxService);
+        ReflectionTestUtils.setField(service, "ttlSeconds", 900L);
+    }
+
+    @Test
+    void expiredReservationsReturnAccountsAndCancelOrders() {
+        List<Long> expired = List.of(10L, 11L);
+        when(orderRepository.lockExpiredReservationIds(any(), eq(500))).thenReturn(expired);
+        when(accountRepository.countReservedByProduct(expired))
+                .thenReturn(List.of(new Object[]{1L, 3L}, new Object[]{2L, 1L}));
+        when(accountRepository.releaseReservedAccounts(expired)).thenReturn(4);
+
+        assertEquals(2, service.expireReservations(500));
+
+        verify(stockService).adjust(1L, 3);
+        verify(stockService).adjust(2L, 1);
+        verify(orderRepository).updateStatusByIds(eq(expired), eq(OrderStatus.CANCELLED), any());
+        verify(orderSummaryService).refresh(expired);
+        verify(outboxService).recordOrderEvents("ORDER_EXPIRED", Map.of(10L, OrderStatus.PENDING, 11L, OrderStatus.PENDING));
+    }
+
+    @Test
+    void nothingExpiredTouchesNothing() {
+        when(orderRepository.lockExpiredReservationIds(any(), anyInt())).thenReturn(List.of());
+
+        assertEquals(0, service.expireReservations(500));
+        verifyNoInteractions(accountRepository, stockService, orderSummaryService);
+        verify(orderRepository, never()).updateStatusByIds(any(), any(), any());
+    }
+
+    @Test
+    void expiredReservationCannotBeConfirmed() {
+        Order order = new Order();
+        order.setId(10L);
+        order.setOrderCode("EXPIRED");
+        order.setReservedUntil(Instant.now().minusSeconds(1));
+
+        assertThrows(IllegalStateException.class, () -> service.confirmReservation(order));
+        verify(accountRepository, never()).markReservedAccountsSold(any(), any());
+
+        order.setReservedUntil(service.newReservationDeadline());
+        service.confirmReservation(order);
+        verify(accountRepository).markReservedAccountsSold(eq(10L), any());
+    }
+}